@@ -0,0 +1,147 @@
+package com.example.digibuddy;
+
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.service.notification.StatusBarNotification;
+import android.util.Log;
+import androidx.core.app.NotificationCompat;
+
+// Posts the alerts AlertRuleEngine asks for. A single active alert is shown under its
+// own id; two or more are folded into one summary notification listing all of them,
+// so a bad tick costs one notify() and one buzz instead of up to eight. What to post
+// and cancel comes from NotificationReconciler, checked against the notifications
+// that are actually showing. Sound and vibration are rationed by a token bucket per
+// channel: without a token the notification is still updated, just silently. The
+// builders are created once and refilled per post.
+public class AlertDispatcher {
+    public static final int MILESTONE_ID = 5000;
+
+    // Two audible alerts back to back, then one per five minutes
+    private static final int ALERT_BURST = 2;
+    private static final long ALERT_REFILL = 5 * 60 * 1000;
+
+    private final NotificationManager notificationManager;
+    private final NotificationCompat.Builder alertBuilder;
+    private final NotificationCompat.Builder milestoneBuilder;
+    private final TokenBucket alertBucket;
+    private final NotificationReconciler reconciler = new NotificationReconciler();
+
+    public AlertDispatcher(Context context, NotificationManager notificationManager,
+                           String channelId, long now) {
+        this.notificationManager = notificationManager;
+        // Alerts and milestones share the channel, so they share its bucket
+        alertBucket = new TokenBucket(ALERT_BURST, ALERT_REFILL, now);
+        alertBuilder = new NotificationCompat.Builder(context, channelId)
+                .setSmallIcon(R.mipmap.ic_launcher)
+                .setPriority(NotificationCompat.PRIORITY_HIGH)
+                .setAutoCancel(true)
+                .setDefaults(Notification.DEFAULT_ALL);
+        milestoneBuilder = new NotificationCompat.Builder(context, channelId)
+                .setSmallIcon(R.mipmap.ic_launcher)
+                .setPriority(NotificationCompat.PRIORITY_HIGH)
+                .setAutoCancel(true)
+                .setDefaults(Notification.DEFAULT_ALL)
+                .setContentTitle("🎉 Milestone Achieved!");
+    }
+
+    // Brings the posted alerts in line with the active rules after an evaluate(), in
+    // one pass; fired marks the rules that are new or due again and may make noise
+    public void dispatch(long active, long fired, long now) {
+        reconciler.reconcile(active, fired, postedSlots());
+        for (long bits = reconciler.getToCancel(); bits != 0; bits &= bits - 1) {
+            cancel(NotificationReconciler.idOf(Long.numberOfTrailingZeros(bits)));
+        }
+        long toPost = reconciler.getToPost();
+        if (toPost == 0) {
+            return;
+        }
+        boolean audible = fired != 0 && alertBucket.tryAcquire(now);
+        for (long bits = toPost; bits != 0; bits &= bits - 1) {
+            int slot = Long.numberOfTrailingZeros(bits);
+            if (slot == NotificationReconciler.SUMMARY_SLOT) {
+                postSummary(active, audible, now);
+            } else {
+                // Left over from a summary: keep it quiet unless it is news
+                postRule(slot, audible && (fired & (1L << slot)) != 0, now);
+            }
+        }
+    }
+
+    public void sendMilestone(int days, long now) {
+        try {
+            milestoneBuilder
+                    .setContentText("Your DigiBuddy is now " + days + " days old! Amazing care!")
+                    .setSilent(!alertBucket.tryAcquire(now))
+                    .setWhen(now);
+            notificationManager.notify(MILESTONE_ID, milestoneBuilder.build());
+        } catch (Exception e) {
+            Log.e("AlertDispatcher", "Error sending milestone notification: " + e.getMessage());
+        }
+    }
+
+    // Alert slots the notification manager is showing for this app
+    private long postedSlots() {
+        long posted = 0;
+        try {
+            for (StatusBarNotification notification : notificationManager.getActiveNotifications()) {
+                posted |= NotificationReconciler.slotOf(notification.getId());
+            }
+        } catch (Exception e) {
+            // Assume everything could be up, so whatever is not wanted gets cancelled
+            Log.e("AlertDispatcher", "Error reading posted notifications: " + e.getMessage());
+            posted = (1L << (NotificationReconciler.SUMMARY_SLOT + 1)) - 1;
+        }
+        return posted;
+    }
+
+    private void postRule(int index, boolean audible, long now) {
+        AlertRuleEngine.Rule rule = AlertRuleEngine.RULES[index];
+        alertBuilder
+                .setContentTitle(rule.title)
+                .setContentText(rule.message)
+                .setStyle(null)
+                .setNumber(0)
+                .setSilent(!audible)
+                .setWhen(now);
+        post(rule.notificationId, rule.key, audible);
+    }
+
+    private void postSummary(long active, boolean audible, long now) {
+        int count = Long.bitCount(active);
+        String title = count + " DigiBuddy alerts";
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle()
+                .setBigContentTitle(title);
+        StringBuilder text = new StringBuilder();
+        for (long bits = active; bits != 0; bits &= bits - 1) {
+            AlertRuleEngine.Rule rule = AlertRuleEngine.RULES[Long.numberOfTrailingZeros(bits)];
+            style.addLine(rule.message);
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            text.append(rule.title);
+        }
+        alertBuilder
+                .setContentTitle(title)
+                .setContentText(text)
+                .setStyle(style)
+                .setNumber(count)
+                .setSilent(!audible)
+                .setWhen(now);
+        post(NotificationReconciler.SUMMARY_ID, "summary", audible);
+    }
+
+    private void post(int id, String what, boolean audible) {
+        try {
+            notificationManager.notify(id, alertBuilder.build());
+            PetLog.d("AlertDispatcher", audible ? "Posted {} alert" : "Posted {} alert silently", what);
+        } catch (Exception e) {
+            Log.e("AlertDispatcher", "Error sending notification: " + e.getMessage());
+        }
+    }
+
+    private void cancel(int id) {
+        notificationManager.cancel(id);
+        PetLog.d("AlertDispatcher", "Cancelled notification {}", id);
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.digibuddy;
+
+// Low-stat alert rules for PetService, as a table. Each rule is a stat, the band
+// it fires in, a re-fire cooldown, a notification id and its text; adding a stat or
+// a band is one more RULES entry. Per-rule state is a bitset of active rules plus a
+// long[] of last-fire times, and evaluate() walks the table once and reports which
+// notifications to post and which to cancel as bit masks, so the check allocates
+// nothing. An active rule stays active until its stat climbs HYSTERESIS points
+// above the band, so a value hovering on the threshold does not post and cancel
+// on alternate wakeups.
+public final class AlertRuleEngine {
+    public static final int STAT_HUNGER = 0;
+    public static final int STAT_HAPPINESS = 1;
+    public static final int STAT_ENERGY = 2;
+    public static final int STAT_CLEANLINESS = 3;
+
+    public static final int WARNING_THRESHOLD = 25;
+    public static final int EMERGENCY_THRESHOLD = 15;
+    // Every band edge; decay can only change the rule outcome at one of these
+    public static final double[] THRESHOLDS = {WARNING_THRESHOLD, EMERGENCY_THRESHOLD, 0};
+    public static final double HYSTERESIS = 2;
+    public static final long COOLDOWN = 5 * 60 * 1000;
+
+    public static final int HUNGER_WARNING_ID = 2001;
+    public static final int HUNGER_EMERGENCY_ID = 2002;
+    public static final int HAPPINESS_WARNING_ID = 3001;
+    public static final int HAPPINESS_EMERGENCY_ID = 3002;
+    public static final int ENERGY_WARNING_ID = 1001;
+    public static final int ENERGY_EMERGENCY_ID = 1002;
+    public static final int CLEANLINESS_WARNING_ID = 4001;
+    public static final int CLEANLINESS_EMERGENCY_ID = 4002;
+
+    public static final class Rule {
+        public final String key;
+        public final int stat;
+        // Fires while lower < value <= upper
+        public final double lower;
+        public final double upper;
+        public final long cooldown;
+        public final int notificationId;
+        public final String title;
+        public final String message;
+
+        Rule(String key, int stat, double lower, double upper, long cooldown,
+             int notificationId, String title, String message) {
+            this.key = key;
+            this.stat = stat;
+            this.lower = lower;
+            this.upper = upper;
+            this.cooldown = cooldown;
+            this.notificationId = notificationId;
+            this.title = title;
+            this.message = message;
+        }
+    }
+
+    public static final Rule[] RULES = {
+            // Warnings - 25% threshold
+            new Rule("hunger_warning", STAT_HUNGER, EMERGENCY_THRESHOLD, WARNING_THRESHOLD, COOLDOWN,
+                    HUNGER_WARNING_ID, "Hunger Warning",
+                    "Your DigiBuddy is getting hungry! Consider feeding soon."),
+            new Rule("happiness_warning", STAT_HAPPINESS, EMERGENCY_THRESHOLD, WARNING_THRESHOLD, COOLDOWN,
+                    HAPPINESS_WARNING_ID, "Happiness Warning",
+                    "Your DigiBuddy is feeling sad! Some playtime would help!"),
+            new Rule("energy_warning", STAT_ENERGY, EMERGENCY_THRESHOLD, WARNING_THRESHOLD, COOLDOWN,
+                    ENERGY_WARNING_ID, "Energy Warning",
+                    "Your DigiBuddy is getting tired! Maybe some rest soon?"),
+            new Rule("cleanliness_warning", STAT_CLEANLINESS, EMERGENCY_THRESHOLD, WARNING_THRESHOLD, COOLDOWN,
+                    CLEANLINESS_WARNING_ID, "Cleanliness Warning",
+                    "Your DigiBuddy is getting dirty! A cleaning would be nice!"),
+            // Emergencies - 15% threshold
+            new Rule("hunger_emergency", STAT_HUNGER, 0, EMERGENCY_THRESHOLD, COOLDOWN,
+                    HUNGER_EMERGENCY_ID, "🍕 HUNGER EMERGENCY!",
+                    "Your DigiBuddy is very hungry! Feed it immediately!"),
+            new Rule("happiness_emergency", STAT_HAPPINESS, 0, EMERGENCY_THRESHOLD, COOLDOWN,
+                    HAPPINESS_EMERGENCY_ID, "😢 HAPPINESS EMERGENCY!",
+                    "Your DigiBuddy is very sad! Play with it urgently!"),
+            new Rule("energy_emergency", STAT_ENERGY, 0, EMERGENCY_THRESHOLD, COOLDOWN,
+                    ENERGY_EMERGENCY_ID, "😴 ENERGY EMERGENCY!",
+                    "Your DigiBuddy is exhausted! Let it sleep immediately!"),
+            new Rule("cleanliness_emergency", STAT_CLEANLINESS, 0, EMERGENCY_THRESHOLD, COOLDOWN,
+                    CLEANLINESS_EMERGENCY_ID, "🛁 CLEANLINESS EMERGENCY!",
+                    "Your DigiBuddy is very dirty! Clean it right away!"),
+    };
+
+    // Bit i set: RULES[i] has fired and its condition still holds
+    private long active;
+    private final long[] lastFired = new long[RULES.length];
+
+    // Results of the last evaluate()
+    private long fired;
+    private long cancelled;
+
+    // One pass over the table. Energy rules are off while the pet sleeps, and no
+    // rule starts or re-fires while it sleeps; active rules are held until it wakes.
+    public void evaluate(Pet pet, long now) {
+        fired = 0;
+        cancelled = 0;
+        if (!pet.isAlive()) {
+            cancelled = active;
+            active = 0;
+            return;
+        }
+        boolean sleeping = pet.isSleeping();
+        for (int i = 0; i < RULES.length; i++) {
+            Rule rule = RULES[i];
+            long bit = 1L << i;
+            boolean isActive = (active & bit) != 0;
+            double value = statValue(pet, rule.stat);
+
+            boolean enter = value <= rule.upper && value > rule.lower;
+            boolean stay = isActive && value <= rule.upper + HYSTERESIS && value > rule.lower;
+            if (sleeping && rule.stat == STAT_ENERGY) {
+                enter = false;
+                stay = false;
+            }
+
+            if (enter || stay) {
+                if (sleeping && !isActive) {
+                    continue;
+                }
+                active |= bit;
+                if (enter && !sleeping && (!isActive || now - lastFired[i] > rule.cooldown)) {
+                    fired |= bit;
+                    lastFired[i] = now;
+                }
+            } else if (isActive) {
+                active &= ~bit;
+                cancelled |= bit;
+            }
+        }
+    }
+
+    // Rules to post after the last evaluate(), as a bit mask over RULES
+    public long getFired() {
+        return fired;
+    }
+
+    // Rules whose notification should be cancelled after the last evaluate()
+    public long getCancelled() {
+        return cancelled;
+    }
+
+    public long getActive() {
+        return active;
+    }
+
+    // Earliest time an active rule may re-fire, or Long.MAX_VALUE if none can. Only
+    // rules the next evaluate() could fire count: a sleeping pet re-fires nothing, and
+    // a rule held in the HYSTERESIS margin above its band fires again only once decay
+    // brings the stat back in, which is a band crossing rather than a cooldown.
+    public long nextRefireAt(Pet pet) {
+        long next = Long.MAX_VALUE;
+        if (!pet.isAlive() || pet.isSleeping()) {
+            return next;
+        }
+        for (long bits = active; bits != 0; bits &= bits - 1) {
+            int i = Long.numberOfTrailingZeros(bits);
+            Rule rule = RULES[i];
+            double value = statValue(pet, rule.stat);
+            if (value <= rule.upper && value > rule.lower) {
+                next = Math.min(next, lastFired[i] + rule.cooldown + 1);
+            }
+        }
+        return next;
+    }
+
+    // When evaluate() can next give a different result if only decay happens: a stat
+    // crossing a band edge, or an alert inside its band coming off cooldown.
+    // Long.MAX_VALUE if neither ever will. Crossings are counted in the whole seconds
+    // PetDecay.advance applies from lastUpdate, so at the returned time the band has
+    // really been crossed, as with PetUiModel.secondsUntilChange.
+    public long nextChangeAt(Pet pet) {
+        if (!pet.isAlive()) {
+            return Long.MAX_VALUE;
+        }
+        boolean sleeping = pet.isSleeping();
+        long seconds = PetDecay.secondsUntilNextThreshold(pet.getHungerUnits(),
+                PetDecay.hungerUnitsPerSecond(sleeping), THRESHOLDS);
+        seconds = Math.min(seconds, PetDecay.secondsUntilNextThreshold(pet.getHappinessUnits(),
+                PetDecay.happinessUnitsPerSecond(sleeping), THRESHOLDS));
+        seconds = Math.min(seconds, PetDecay.secondsUntilNextThreshold(pet.getEnergyUnits(),
+                PetDecay.energyUnitsPerSecond(sleeping), THRESHOLDS));
+        seconds = Math.min(seconds, PetDecay.secondsUntilNextThreshold(pet.getCleanlinessUnits(),
+                PetDecay.cleanlinessUnitsPerSecond(sleeping), THRESHOLDS));
+
+        long next = nextRefireAt(pet);
+        if (seconds != Long.MAX_VALUE) {
+            next = Math.min(next, pet.getLastUpdate() + seconds * 1000);
+        }
+        return next;
+    }
+
+    public void reset() {
+        active = 0;
+        fired = 0;
+        cancelled = 0;
+    }
+
+    static double statValue(Pet pet, int stat) {
+        switch (stat) {
+            case STAT_HUNGER: return pet.getHunger();
+            case STAT_HAPPINESS: return pet.getHappiness();
+            case STAT_ENERGY: return pet.getEnergy();
+            default: return pet.getCleanliness();
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package com.example.digibuddy;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Monte Carlo balance check: simulates many pet lifetimes, each cared for by a
+// caretaker whose habits (how often they feed, play, clean, how long the pet sleeps,
+// how often they forget) are drawn at random from a PolicySpace. Reports the survival
+// curve, the share of time spent in each mood and how long each stage takes to reach.
+//
+// Lifetimes are independent, so the range is split with fork-join down to batches of
+// BATCH lifetimes. Every batch owns its random stream and its Report, and reports are
+// merged on join, so workers share nothing and throughput scales with cores. Each
+// batch seeds its stream from its position, so results depend on the seed only,
+// never on how the work was split or how many threads ran it.
+public class BalanceSimulator {
+    private static final long MINUTE = PetDecay.MILLIS_PER_MINUTE;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+    private static final int BATCH = 1024;
+    private static final PetStage[] STAGES = PetStage.values();
+
+    // Stat values where PetMood.of can change its answer
+    private static final double[] HUNGER_MOOD = {50, 20};
+    private static final double[] HAPPINESS_MOOD = {70};
+    private static final double[] ENERGY_MOOD = {50, 20};
+    private static final double[] CLEANLINESS_MOOD = {30};
+
+    // Ranges caretaker habits are drawn from, uniformly, once per lifetime
+    public static final class PolicySpace {
+        double feedMinHours = 2, feedMaxHours = 12;
+        double playMinHours = 3, playMaxHours = 24;
+        double cleanMinHours = 12, cleanMaxHours = 72;
+        double sleepMinHours = 0, sleepMaxHours = 10;
+        double forgetMin = 0, forgetMax = 0.3;
+        // Each gap between actions is the habit's interval +- this fraction
+        double jitter = 0.25;
+
+        public PolicySpace feedEvery(double minHours, double maxHours) {
+            feedMinHours = minHours;
+            feedMaxHours = maxHours;
+            return this;
+        }
+
+        public PolicySpace playEvery(double minHours, double maxHours) {
+            playMinHours = minHours;
+            playMaxHours = maxHours;
+            return this;
+        }
+
+        public PolicySpace cleanEvery(double minHours, double maxHours) {
+            cleanMinHours = minHours;
+            cleanMaxHours = maxHours;
+            return this;
+        }
+
+        // Nightly sleep, starting around 22:00; 0 hours means the pet is never put to bed
+        public PolicySpace sleepFor(double minHours, double maxHours) {
+            sleepMinHours = minHours;
+            sleepMaxHours = maxHours;
+            return this;
+        }
+
+        // Chance that any single action is skipped
+        public PolicySpace forget(double minChance, double maxChance) {
+            forgetMin = minChance;
+            forgetMax = maxChance;
+            return this;
+        }
+
+        public PolicySpace jitter(double fraction) {
+            jitter = fraction;
+            return this;
+        }
+    }
+
+    public static final class Report {
+        public final int maxDays;
+        long lifetimes;
+        // deaths[d]: lifetimes that ended during day d
+        final long[] deaths;
+        final long[] deathCauses = new long[4];
+        final long[] moodMillis = new long[PetMood.values().length];
+        // Indexed by PetStage ordinal; EGG is where every lifetime starts
+        final long[] stageReached = new long[STAGES.length];
+        final long[] stageMillis = new long[STAGES.length];
+        long careRefused;
+
+        Report(int maxDays) {
+            this.maxDays = maxDays;
+            deaths = new long[maxDays];
+        }
+
+        void merge(Report other) {
+            lifetimes += other.lifetimes;
+            careRefused += other.careRefused;
+            add(deaths, other.deaths);
+            add(deathCauses, other.deathCauses);
+            add(moodMillis, other.moodMillis);
+            add(stageReached, other.stageReached);
+            add(stageMillis, other.stageMillis);
+        }
+
+        public long getLifetimes() {
+            return lifetimes;
+        }
+
+        // Fraction of lifetimes still alive at the end of the given day (1-based)
+        public double survivalAt(int day) {
+            long died = 0;
+            for (int d = 0; d < Math.min(day, maxDays); d++) {
+                died += deaths[d];
+            }
+            return lifetimes == 0 ? 0 : 1 - died / (double) lifetimes;
+        }
+
+        // Fraction of all living time spent in the mood
+        public double moodShare(PetMood mood) {
+            long total = 0;
+            for (long millis : moodMillis) {
+                total += millis;
+            }
+            return total == 0 ? 0 : moodMillis[mood.ordinal()] / (double) total;
+        }
+
+        public long getLivingMillis() {
+            long total = 0;
+            for (long millis : moodMillis) {
+                total += millis;
+            }
+            return total;
+        }
+
+        // Fraction of lifetimes that reached the stage
+        public double stageReachedShare(PetStage stage) {
+            int i = stage.ordinal();
+            return lifetimes == 0 ? 0 : stageReached[i] / (double) lifetimes;
+        }
+
+        // Mean days to reach the stage, over the lifetimes that reached it
+        public double meanDaysToStage(PetStage stage) {
+            int i = stage.ordinal();
+            return stageReached[i] == 0 ? Double.NaN : stageMillis[i] / (double) stageReached[i] / DAY;
+        }
+
+        public void print(PrintStream out) {
+            out.println("lifetimes: " + lifetimes);
+            out.println("day,survival");
+            for (int day = 1; day <= maxDays; day++) {
+                out.println(String.format(Locale.US, "%d,%.4f", day, survivalAt(day)));
+            }
+            for (PetMood mood : PetMood.values()) {
+                out.println(String.format(Locale.US, "# mood %s %.2f%%", mood, moodShare(mood) * 100));
+            }
+            for (int i = 1; i < STAGES.length; i++) {
+                PetStage stage = STAGES[i];
+                out.println(String.format(Locale.US, "# stage %s reached %.2f%% mean day %.2f",
+                        stage.id, stageReachedShare(stage) * 100, meanDaysToStage(stage)));
+            }
+            out.println(String.format(Locale.US, "# death causes hunger=%d happiness=%d energy=%d cleanliness=%d",
+                    deathCauses[0], deathCauses[1], deathCauses[2], deathCauses[3]));
+            out.println("# care refused " + careRefused);
+        }
+
+        private static void add(long[] into, long[] from) {
+            for (int i = 0; i < into.length; i++) {
+                into[i] += from[i];
+            }
+        }
+    }
+
+    private final PolicySpace space;
+    private final int maxDays;
+
+    public BalanceSimulator(PolicySpace space, int maxDays) {
+        if (maxDays <= 0) {
+            throw new IllegalArgumentException("maxDays must be positive");
+        }
+        this.space = space;
+        this.maxDays = maxDays;
+    }
+
+    public Report run(long lifetimes, long seed) {
+        return run(lifetimes, seed, ForkJoinPool.commonPool());
+    }
+
+    public Report run(long lifetimes, long seed, ForkJoinPool pool) {
+        return pool.invoke(new Batch(0, lifetimes, seed));
+    }
+
+    private final class Batch extends RecursiveTask<Report> {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+        private final long seed;
+
+        Batch(long from, long to, long seed) {
+            this.from = from;
+            this.to = to;
+            this.seed = seed;
+        }
+
+        @Override
+        protected Report compute() {
+            if (to - from <= BATCH) {
+                return runBatch(from, to, seed);
+            }
+            // Split on BATCH boundaries so every batch, and its seed, is the same
+            // however the range was divided
+            long middle = from + Math.max(1, (to - from) / BATCH / 2) * BATCH;
+            Batch left = new Batch(from, middle, seed);
+            left.fork();
+            Report report = new Batch(middle, to, seed).compute();
+            report.merge(left.join());
+            return report;
+        }
+    }
+
+    Report runBatch(long from, long to, long seed) {
+        Report report = new Report(maxDays);
+        SplittableRandom random = new SplittableRandom(seed + from * 0x9E3779B97F4A7C15L);
+        Lifetime lifetime = new Lifetime();
+        for (long i = from; i < to; i++) {
+            lifetime.run(random, report);
+        }
+        return report;
+    }
+
+    // One pet's life, reused across the lifetimes of a batch so the loop allocates nothing
+    private final class Lifetime {
+        private final Pet pet = new Pet();
+        private final Pet probe = new Pet();
+
+        void run(SplittableRandom random, Report report) {
+            long feedEvery = hours(random, space.feedMinHours, space.feedMaxHours);
+            long playEvery = hours(random, space.playMinHours, space.playMaxHours);
+            long cleanEvery = hours(random, space.cleanMinHours, space.cleanMaxHours);
+            long sleepFor = hours(random, space.sleepMinHours, space.sleepMaxHours);
+            double forget = space.forgetMin + random.nextDouble() * (space.forgetMax - space.forgetMin);
+
+            pet.reset();
+            pet.setLastUpdate(0);
+            long horizon = maxDays * DAY;
+            // The first meal comes straight away
+            long nextFeed = 0;
+            long nextPlay = gap(random, playEvery);
+            long nextClean = gap(random, cleanEvery);
+            long nextSleep = sleepFor > 0 ? 22 * HOUR + gap(random, HOUR) - HOUR / 2 : Long.MAX_VALUE;
+            long nextWake = Long.MAX_VALUE;
+            // Every lifetime starts as an egg; stage is the next one to reach
+            report.stageReached[PetStage.EGG.ordinal()]++;
+            int stage = PetStage.EGG.ordinal() + 1;
+
+            long offset = 0;
+            while (offset < horizon) {
+                long target = Math.min(horizon, Math.min(Math.min(nextFeed, nextPlay), Math.min(nextClean,
+                        Math.min(nextSleep, nextWake))));
+                target = Math.min(target, nextChange(pet, offset));
+
+                PetMood mood = moodBetween(offset, target);
+                double minutes = PetDecay.advance(pet, target);
+                if (!pet.isAlive()) {
+                    long diedAt = offset + Math.round(minutes * MINUTE);
+                    report.moodMillis[mood.ordinal()] += diedAt - offset;
+                    report.deaths[(int) Math.min(maxDays - 1, diedAt / DAY)]++;
+                    int cause = PetJournal.deathCause(pet);
+                    for (int bit = 0; bit < report.deathCauses.length; bit++) {
+                        if ((cause & (1 << bit)) != 0) {
+                            report.deathCauses[bit]++;
+                        }
+                    }
+                    break;
+                }
+                report.moodMillis[mood.ordinal()] += target - offset;
+                offset = target;
+                while (stage < STAGES.length && pet.getAgeSeconds() >= STAGES[stage].fromSeconds()) {
+                    report.stageReached[stage]++;
+                    report.stageMillis[stage] += offset;
+                    stage++;
+                }
+
+                if (offset == nextWake) {
+                    // Waking is never forgotten: the pet would otherwise sleep forever
+                    PetSimulator.applyCare(pet, PetJournal.EVENT_WAKE);
+                    nextWake = Long.MAX_VALUE;
+                }
+                if (offset == nextFeed) {
+                    nextFeed = careAndPlan(random, forget, PetJournal.EVENT_FEED, feedEvery, offset, nextWake, report);
+                }
+                if (offset == nextPlay) {
+                    nextPlay = careAndPlan(random, forget, PetJournal.EVENT_PLAY, playEvery, offset, nextWake, report);
+                }
+                if (offset == nextClean) {
+                    nextClean = careAndPlan(random, forget, PetJournal.EVENT_CLEAN, cleanEvery, offset, nextWake, report);
+                }
+                if (offset == nextSleep) {
+                    if (care(random, forget, PetJournal.EVENT_SLEEP, report)) {
+                        nextWake = offset + sleepFor;
+                    }
+                    nextSleep += DAY;
+                }
+            }
+            report.lifetimes++;
+        }
+
+        // Does one habitual action and returns when it is next due. A caretaker who
+        // finds the pet asleep comes back when it wakes instead of skipping a turn.
+        private long careAndPlan(SplittableRandom random, double forget, int event, long every,
+                                 long offset, long nextWake, Report report) {
+            if (pet.isSleeping() && nextWake != Long.MAX_VALUE) {
+                return nextWake;
+            }
+            care(random, forget, event, report);
+            return offset + gap(random, every);
+        }
+
+        private boolean care(SplittableRandom random, double forget, int event, Report report) {
+            if (random.nextDouble() < forget) {
+                return false;
+            }
+            if (!PetSimulator.applyCare(pet, event)) {
+                report.careRefused++;
+                return false;
+            }
+            return true;
+        }
+
+        // The mood is constant between two stops; read it halfway so a stat sitting
+        // exactly on a threshold is counted on the side it is heading to
+        private PetMood moodBetween(long from, long to) {
+            probe.copyFrom(pet);
+            PetDecay.advance(probe, from + (to - from) / 2);
+            return PetMood.of(probe);
+        }
+    }
+
+    // Next offset at which the mood or stage can change, at least 1ms ahead
+    private static long nextChange(Pet pet, long offset) {
+        double minutes = Double.POSITIVE_INFINITY;
+        PetStage next = PetStage.forAgeSeconds(pet.getAgeSeconds()).next();
+        if (next != null) {
+            minutes = PetDecay.minutesUntilAge(pet, next.fromDay);
+        }
+        if (!pet.isSleeping()) {
+            // Awake, every stat decays, so each mood threshold is crossed at most once
+            minutes = Math.min(minutes, PetDecay.minutesUntilNextThreshold(pet.getHunger(),
+                    PetDecay.hungerRate(false), HUNGER_MOOD));
+            minutes = Math.min(minutes, PetDecay.minutesUntilNextThreshold(pet.getHappiness(),
+                    PetDecay.happinessRate(false), HAPPINESS_MOOD));
+            minutes = Math.min(minutes, PetDecay.minutesUntilNextThreshold(pet.getEnergy(),
+                    PetDecay.energyRate(false), ENERGY_MOOD));
+            minutes = Math.min(minutes, PetDecay.minutesUntilNextThreshold(pet.getCleanliness(),
+                    PetDecay.cleanlinessRate(false), CLEANLINESS_MOOD));
+        }
+        if (minutes == Double.POSITIVE_INFINITY) {
+            return Long.MAX_VALUE;
+        }
+        return offset + Math.max(1, (long) Math.ceil(minutes * MINUTE));
+    }
+
+    private static long hours(SplittableRandom random, double min, double max) {
+        return (long) ((min + random.nextDouble() * (max - min)) * HOUR);
+    }
+
+    private long gap(SplittableRandom random, long interval) {
+        double factor = 1 + space.jitter * (2 * random.nextDouble() - 1);
+        return Math.max(MINUTE, (long) (interval * factor));
+    }
+
+    // Usage: BalanceSimulator <lifetimes> [maxDays] [seed] [threads]
+    public static void main(String[] args) {
+        long lifetimes = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int maxDays = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        int threads = args.length > 3 ? Integer.parseInt(args[3])
+                : Runtime.getRuntime().availableProcessors();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        Report report = new BalanceSimulator(new PolicySpace(), maxDays).run(lifetimes, seed, pool);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        report.print(System.out);
+        System.out.println(String.format(Locale.US, "# %.1fs on %d threads, %.0f lifetimes/s",
+                seconds, threads, lifetimes / seconds));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.digibuddy;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+// Write-behind layer in front of PetPreferences, used by PetRepository.
+// Repeated saves only update the in-memory copy and mark it dirty if it changed;
+// a dirty pet is journaled as one tick every FLUSH_INTERVAL and at lifecycle
+// boundaries. Care actions, sleep changes, milestones and death are journaled
+// immediately as events. Decay between flushes is never lost: PetDecay recomputes
+// it from lastUpdate when the journal is replayed. The delayed flush runs on the
+// looper it is given, PetRepository's simulation thread, so no write happens on
+// the main thread.
+public class BufferedPetPreferences {
+    private static final long FLUSH_INTERVAL = 5 * 60 * 1000;
+
+    private static BufferedPetPreferences instance;
+
+    private final PetPreferences petPreferences;
+    private final Handler handler;
+    private final Runnable flushRunnable = this::flush;
+
+    // Latest state (persisted + pending), null until first load or save
+    private Pet cached;
+    private boolean dirty;
+    private boolean flushScheduled;
+
+    public static synchronized BufferedPetPreferences getInstance(Context context, Looper looper) {
+        if (instance == null) {
+            instance = new BufferedPetPreferences(new PetPreferences(context.getApplicationContext()), looper);
+        }
+        return instance;
+    }
+
+    BufferedPetPreferences(PetPreferences petPreferences, Looper looper) {
+        this.petPreferences = petPreferences;
+        this.handler = new Handler(looper);
+    }
+
+    public synchronized Pet loadPet() {
+        if (cached == null) {
+            cached = petPreferences.loadPet();
+        }
+        Pet pet = new Pet();
+        pet.copyFrom(cached);
+        return pet;
+    }
+
+    // Buffers a simulation tick; dying is journaled right away with its cause
+    public synchronized void savePet(Pet pet) {
+        if (cached != null && cached.isAlive() && !pet.isAlive()) {
+            recordEvent(pet, PetJournal.EVENT_DEATH, PetJournal.deathCause(pet));
+            return;
+        }
+        dirty |= differs(cached, pet);
+        if (cached == null) {
+            cached = new Pet();
+        }
+        cached.copyFrom(pet);
+
+        if (dirty && !flushScheduled) {
+            flushScheduled = true;
+            handler.postDelayed(flushRunnable, FLUSH_INTERVAL);
+        }
+    }
+
+    // Journals an event immediately; pet is the state right after it
+    public synchronized void recordEvent(Pet pet, int type, int arg) {
+        cancelScheduledFlush();
+        dirty = false;
+        if (cached == null) {
+            cached = new Pet();
+        }
+        cached.copyFrom(pet);
+        petPreferences.appendEvent(cached, type, arg);
+    }
+
+    public synchronized void flush() {
+        cancelScheduledFlush();
+        if (!dirty || cached == null) {
+            return;
+        }
+        petPreferences.appendEvent(cached, PetJournal.EVENT_TICK, 0);
+        PetLog.d("PetPreferences", "Flushed buffered tick, lastUpdate {}", cached.getLastUpdate());
+        dirty = false;
+    }
+
+    public synchronized PetJournal getJournal() {
+        return petPreferences.getJournal();
+    }
+
+    private void cancelScheduledFlush() {
+        if (flushScheduled) {
+            handler.removeCallbacks(flushRunnable);
+            flushScheduled = false;
+        }
+    }
+
+    // Every flush writes the whole record, so all that matters is whether anything changed
+    private static boolean differs(Pet before, Pet after) {
+        return before == null
+                || PetState.packLow(before) != PetState.packLow(after)
+                || PetState.packHigh(before) != PetState.packHigh(after)
+                || before.getLastUpdate() != after.getLastUpdate();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.digibuddy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// A scripted caretaker for PetSimulator: care actions at fixed offsets from the start
+// of a run, once or repeating. Actions are the journal's event types (FEED, PLAY,
+// CLEAN, SLEEP, WAKE), so a schedule reads like the journal it would produce.
+public class CareSchedule {
+    private static final long MINUTE = PetDecay.MILLIS_PER_MINUTE;
+
+    private final List<long[]> entries = new ArrayList<>(); // {event, first, period}
+
+    // One action, offsetMillis after the start
+    public CareSchedule at(long offsetMillis, int event) {
+        return every(0, offsetMillis, event);
+    }
+
+    // An action at firstMillis and then every periodMillis; a period of 0 means once
+    public CareSchedule every(long periodMillis, long firstMillis, int event) {
+        if (periodMillis < 0 || firstMillis < 0) {
+            throw new IllegalArgumentException("Negative schedule time");
+        }
+        entries.add(new long[]{event, firstMillis, periodMillis});
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    // Earliest action time at or after offset, or Long.MAX_VALUE if none is left
+    long nextAt(long offset) {
+        long next = Long.MAX_VALUE;
+        for (long[] entry : entries) {
+            next = Math.min(next, occurrenceAt(entry, offset));
+        }
+        return next;
+    }
+
+    // Collects the events due exactly at offset, in the order they were added
+    int eventsAt(long offset, int[] out) {
+        int count = 0;
+        for (long[] entry : entries) {
+            if (occurrenceAt(entry, offset) == offset && count < out.length) {
+                out[count++] = (int) entry[0];
+            }
+        }
+        return count;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static long occurrenceAt(long[] entry, long offset) {
+        long first = entry[1];
+        long period = entry[2];
+        if (offset <= first) {
+            return first;
+        }
+        if (period == 0) {
+            return Long.MAX_VALUE;
+        }
+        long periods = (offset - first + period - 1) / period;
+        return first + periods * period;
+    }
+
+    // "feed:60:480,sleep:1320:1440" = action:firstMinute[:periodMinutes], comma separated
+    public static CareSchedule parse(String spec) {
+        CareSchedule schedule = new CareSchedule();
+        if (spec == null || spec.trim().isEmpty()) {
+            return schedule;
+        }
+        for (String part : spec.split(",")) {
+            String[] fields = part.trim().split(":");
+            if (fields.length < 2 || fields.length > 3) {
+                throw new IllegalArgumentException("Bad schedule entry: " + part);
+            }
+            int event = eventFor(fields[0]);
+            long first = Long.parseLong(fields[1]) * MINUTE;
+            long period = fields.length == 3 ? Long.parseLong(fields[2]) * MINUTE : 0;
+            schedule.every(period, first, event);
+        }
+        return schedule;
+    }
+
+    private static int eventFor(String name) {
+        switch (name.toLowerCase(Locale.US)) {
+            case "feed": return PetJournal.EVENT_FEED;
+            case "play": return PetJournal.EVENT_PLAY;
+            case "clean": return PetJournal.EVENT_CLEAN;
+            case "sleep": return PetJournal.EVENT_SLEEP;
+            case "wake": return PetJournal.EVENT_WAKE;
+            default: throw new IllegalArgumentException("Unknown care action: " + name);
+        }
+    }
+}
@@ -1,16 +1,19 @@
 package com.example.digibuddy;
 
 import android.app.AlertDialog;
-import android.app.NotificationManager;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
 import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.Button;
 import android.widget.ImageView;
-import android.widget.LinearLayout;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
@@ -19,57 +22,133 @@ import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 
 public class MainActivity extends AppCompatActivity {
-    private Pet pet;
-    private PetPreferences petPreferences;
+    // Latest snapshot seen on the main thread; refreshed before every action
+    private PetSnapshot pet;
+    private PetRepository repository;
     private static final int PERMISSION_REQUEST_CODE = 100;
 
     private ImageView petImage;
     private ProgressBar hungerBar, happinessBar, energyBar, cleanlinessBar;
     private TextView hungerText, happinessText, energyText, cleanlinessText, ageText, messageText, starInfoText;
     private Button feedButton, playButton, sleepButton, cleanButton, resetButton;
-    private LinearLayout starsContainer;
+    private StarStripView starStrip;
+    private PetSpriteCache spriteCache;
+    private StatChartView statHistoryChart;
 
     private final Handler uiHandler = new Handler();
-    private Runnable uiUpdateRunnable;
+    private PetTicker ticker;
+    // What the views currently show; null forces a full bind
+    private PetUiModel uiModel;
+    private final PetRepository.Listener petListener = this::onPetChanged;
 
-    // NEW: Notification constants
-    private static final int ENERGY_WARNING_ID = 1001;
-    private static final int ENERGY_EMERGENCY_ID = 1002;
+    // Every message to messageText and Toast goes through here; see MessageScheduler
+    private final MessageScheduler messages = new MessageScheduler();
+    private final Runnable messageExpired = this::onMessageExpired;
+    private Toast currentToast;
+    // Mood line to put back once a message has had its time
+    private String moodText;
 
-    // Mood enum
-    enum PetMood {
-        HAPPY, HUNGRY, TIRED, DIRTY, SLEEPING, DEFAULT
-    }
+    // Drawable diagnostics are opt-in on debug builds:
+    // adb shell setprop log.tag.DigiBuddyDiag DEBUG
+    private static final String DIAGNOSTICS_TAG = "DigiBuddyDiag";
+
+    private final StartupTrace startupTrace = new StartupTrace(System.nanoTime());
+    private boolean startupPhaseOpen;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        setContentView(R.layout.activity_main);
 
+        // Only what the first frame needs runs here; the rest waits for it
+        beginStartupPhase("views");
+        setContentView(R.layout.activity_main);
         initializeViews();
-        checkAvailableDrawables();
-        checkDrawableProperties();
-        petPreferences = new PetPreferences(this);
+        spriteCache = new PetSpriteCache(this);
+
+        beginStartupPhase("repository");
+        repository = PetRepository.getInstance(this);
+        pet = repository.getPet();
+        ticker = new PetTicker(repository);
+        statHistoryChart.setHistory(repository.getHistory());
 
+        beginStartupPhase("catchUp");
         try {
             loadPet();
         } catch (Exception e) {
-            pet = new Pet();
-            petPreferences.savePet(pet);
+            repository.reset();
             showMessage("Welcome to DigiBuddy! A new pet has arrived!");
         }
 
+        beginStartupPhase("buttons");
         setupButtons();
-        startUIUpdates();
+        endStartupPhase();
+
+        runAfterFirstFrame(this::deferredStartup);
+    }
+
+    // Non-critical startup work, run once the first frame is on screen
+    private void deferredStartup() {
+        startupTrace.firstFrame();
+        long sinceProcessStart = -1;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            sinceProcessStart = SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime();
+        }
+
+        if (isDiagnosticsEnabled()) {
+            beginStartupPhase("diagnostics");
+            checkAvailableDrawables();
+            checkDrawableProperties();
+        }
+
+        beginStartupPhase("permission");
         requestNotificationPermission();
+        endStartupPhase();
+
+        startupTrace.finish();
+        Log.i("StartupReport", startupTrace.report(BuildConfig.VERSION_NAME)
+                + " processStartToFirstFrame=" + sinceProcessStart + "ms");
+        reportFullyDrawn();
+    }
 
-        // NEW: Initial notification cleanup
-        cleanupAllEnergyNotifications();
+    // Each phase is also a systrace section, so it shows up in Perfetto traces
+    private void beginStartupPhase(String phase) {
+        endStartupPhase();
+        startupTrace.begin(phase);
+        Trace.beginSection("startup:" + phase);
+        startupPhaseOpen = true;
+    }
+
+    private void endStartupPhase() {
+        if (startupPhaseOpen) {
+            Trace.endSection();
+            startupTrace.end();
+            startupPhaseOpen = false;
+        }
+    }
+
+    private void runAfterFirstFrame(Runnable action) {
+        View decorView = getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                decorView.getViewTreeObserver().removeOnPreDrawListener(this);
+                // Posted from the pre-draw pass, so it runs after this frame is drawn
+                uiHandler.post(action);
+                return true;
+            }
+        });
+    }
+
+    private static boolean isDiagnosticsEnabled() {
+        return BuildConfig.DEBUG && Log.isLoggable(DIAGNOSTICS_TAG, Log.DEBUG);
     }
 
     private void initializeViews() {
         try {
             petImage = findViewById(R.id.petImage);
+            // Set once here rather than on every image update
+            petImage.setScaleType(ImageView.ScaleType.CENTER_INSIDE);
+            petImage.setAdjustViewBounds(true);
             hungerBar = findViewById(R.id.hungerBar);
             happinessBar = findViewById(R.id.happinessBar);
             energyBar = findViewById(R.id.energyBar);
@@ -82,7 +161,8 @@ public class MainActivity extends AppCompatActivity {
             ageText = findViewById(R.id.ageText);
             messageText = findViewById(R.id.messageText);
             starInfoText = findViewById(R.id.starInfoText);
-            starsContainer = findViewById(R.id.starsContainer);
+            starStrip = findViewById(R.id.starStrip);
+            statHistoryChart = findViewById(R.id.statHistoryChart);
 
             feedButton = findViewById(R.id.feedButton);
             playButton = findViewById(R.id.playButton);
@@ -133,44 +213,28 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
-    // New method to check drawable properties and sizes
+    // Checks every sprite renders at a usable size. Goes through the sprite cache so
+    // each vector is parsed once and the result is reused by updatePetImage().
     private void checkDrawableProperties() {
         try {
-            int[] drawableIds = {
-                    R.drawable.ic_pet_egg,
-                    R.drawable.ic_pet_baby,
-                    R.drawable.ic_pet_teen,
-                    R.drawable.ic_pet_adult,
-                    R.drawable.ic_pet_happy,
-                    R.drawable.ic_pet_hungry,
-                    R.drawable.ic_pet_tired,
-                    R.drawable.ic_pet_dirty
-            };
-
-            String[] names = {
-                    "ic_pet_egg", "ic_pet_baby", "ic_pet_teen", "ic_pet_adult",
-                    "ic_pet_happy", "ic_pet_hungry", "ic_pet_tired", "ic_pet_dirty"
-            };
-
-            for (int i = 0; i < drawableIds.length; i++) {
+            for (PetSprite sprite : PetSprite.values()) {
                 try {
-                    android.graphics.drawable.Drawable drawable = ContextCompat.getDrawable(this, drawableIds[i]);
+                    android.graphics.drawable.Drawable drawable =
+                            spriteCache.get(sprite, spriteDrawable(sprite), petImage);
                     if (drawable != null) {
                         int width = drawable.getIntrinsicWidth();
                         int height = drawable.getIntrinsicHeight();
-                        Log.d("DrawableProps", names[i] + " - Size: " + width + "x" + height +
-                                ", Bounds: " + drawable.getBounds() +
-                                ", ConstantState: " + (drawable.getConstantState() != null));
+                        Log.d("DrawableProps", sprite + " - Size: " + width + "x" + height);
 
                         // Check if drawable is effectively empty
                         if (width <= 0 || height <= 0) {
-                            Log.e("DrawableProps", names[i] + " - EMPTY/INVALID SIZE!");
+                            Log.e("DrawableProps", sprite + " - EMPTY/INVALID SIZE!");
                         }
                     } else {
-                        Log.e("DrawableProps", names[i] + " - NULL DRAWABLE");
+                        Log.e("DrawableProps", sprite + " - NULL DRAWABLE");
                     }
                 } catch (Exception e) {
-                    Log.e("DrawableProps", names[i] + " - ERROR: " + e.getMessage());
+                    Log.e("DrawableProps", sprite + " - ERROR: " + e.getMessage());
                 }
             }
         } catch (Exception e) {
@@ -195,108 +259,75 @@ public class MainActivity extends AppCompatActivity {
         else Log.d("StageDebug", "Should be: adult");
     }
 
+    // Catches the shared pet up after the activity was away
     private void loadPet() {
+        if (!repository.isLoaded()) {
+            // Storage is still being read off the main thread; onPetChanged comes
+            // back here with EVENT_LOADED. Until then care would act on a placeholder.
+            setCareButtonsEnabled(false);
+            return;
+        }
         try {
-            pet = petPreferences.loadPet();
-
             // Calculate time passed since last update
-            long timePassed = System.currentTimeMillis() - pet.getLastUpdate();
-            long minutesPassed = timePassed / (1000 * 60);
-
-            // Check if this is a fresh pet (all stats at starting values)
-            boolean isFreshPet = pet.getHunger() == 100 &&
-                    pet.getHappiness() == 100 &&
-                    pet.getEnergy() == 100 &&
-                    pet.getAge() == 0 &&
-                    pet.getCleanliness() == 100;
-
-            // Apply background degradation ONLY if:
-            // 1. More than 1 minute has passed AND
-            // 2. Pet is alive AND
-            // 3. This is NOT a fresh pet
-            if (minutesPassed > 1 && pet.isAlive() && !isFreshPet) {
-                // UPDATED: Balanced degradation rates (per minute)
-                double hungerLoss = minutesPassed * 0.08;
-                double happinessLoss = minutesPassed * 0.04;
-                double energyLoss = minutesPassed * 0.04;
-                double cleanlinessLoss = minutesPassed * 0.016;
-
-                // Calculate age based on days passed (1440 minutes = 1 day)
-                double daysPassed = minutesPassed / 1440.0;
-                double previousAge = pet.getAge();
-                pet.setAge(pet.getAge() + daysPassed);
-
-                // If sleeping, apply sleep benefits
-                if (pet.isSleeping()) {
-                    // UPDATED: Balanced sleeping rates (per minute)
-                    double energyGain = minutesPassed * 0.24;
-                    pet.setEnergy(Math.min(100, pet.getEnergy() + energyGain));
-                    hungerLoss *= 0.3;
-                    happinessLoss *= 0.4;
-                    cleanlinessLoss *= 0.5;
-                    energyLoss = 0;
-                }
+            pet = repository.getPet();
+            long now = System.currentTimeMillis();
+            long minutesPassed = (now - pet.getLastUpdate()) / (1000 * 60);
+            boolean isFreshPet = pet.isFresh();
 
-                pet.setHunger(Math.max(0, pet.getHunger() - hungerLoss));
-                pet.setHappiness(Math.max(0, pet.getHappiness() - happinessLoss));
-                pet.setEnergy(Math.max(0, pet.getEnergy() - energyLoss));
-                pet.setCleanliness(Math.max(0, pet.getCleanliness() - cleanlinessLoss));
+            // Catch up on background degradation in one closed-form step;
+            // fresh pets only get their lastUpdate moved forward
+            pet = repository.catchUp(now);
 
-                pet.checkDeath();
-                pet.setLastUpdate(System.currentTimeMillis());
-                petPreferences.savePet(pet);
-
-                if (minutesPassed > 10) {
-                    if (pet.isSleeping()) {
-                        showMessage("Welcome back! Your DigiBuddy is still sleeping... Zzz");
-                    } else {
-                        showMessage("Welcome back! Your DigiBuddy missed you!");
-                    }
+            if (minutesPassed > 10 && pet.isAlive() && !isFreshPet) {
+                if (pet.isSleeping()) {
+                    showMessage("Welcome back! Your DigiBuddy is still sleeping... Zzz");
+                } else {
+                    showMessage("Welcome back! Your DigiBuddy missed you!");
                 }
             }
-            // If it's a fresh pet, update the lastUpdate time to prevent immediate degradation
-            else if (isFreshPet) {
-                pet.setLastUpdate(System.currentTimeMillis());
-                petPreferences.savePet(pet);
-            }
 
             updateUI();
             updateSleepButtonText();
 
             // DEBUG: Show age calculation info
-            long currentTimePassed = System.currentTimeMillis() - pet.getLastUpdate();
-            long currentMinutesPassed = currentTimePassed / (1000 * 60);
-            double currentDaysPassed = currentMinutesPassed / 1440.0;
-            Log.d("AgeDebug", "Minutes passed: " + currentMinutesPassed + ", Days passed: " + currentDaysPassed + ", Current age: " + pet.getAge() + ", Stage: " + pet.getStage());
+            if (PetLog.isEnabled(Log.DEBUG)) {
+                long currentTimePassed = System.currentTimeMillis() - pet.getLastUpdate();
+                long currentMinutesPassed = currentTimePassed / (1000 * 60);
+                double currentDaysPassed = currentMinutesPassed / 1440.0;
+                Log.d("AgeDebug", "Minutes passed: " + currentMinutesPassed + ", Days passed: " + currentDaysPassed + ", Current age: " + pet.getAge() + ", Stage: " + pet.getStage());
+            }
 
         } catch (Exception e) {
-            // If anything fails, create a fresh pet
-            pet = new Pet();
-            petPreferences.savePet(pet);
+            // Storage already falls back to the last good snapshot, so never
+            // overwrite it here
+            Log.e("PetRepository", "Error catching up pet: " + e.getMessage());
             updateUI();
         }
     }
 
-    private void checkMilestones(double previousAge, double currentAge) {
-        try {
-            int previousDays = (int) previousAge;
-            int currentDays = (int) currentAge;
-
-            // Check if we crossed any 10-day milestone
-            if (currentDays > previousDays && currentDays % 10 == 0) {
-                String milestoneMessage = "🎉 Milestone reached! Your DigiBuddy is now " + currentDays + " days old!";
-                showMessage(milestoneMessage);
-                updateStarsDisplay();
-            }
-        } catch (Exception e) {
-            // Ignore milestone errors
+    // Every change to the shared pet, whether made here or by PetService, arrives here
+    // on the main thread with the snapshot it produced; its model was built off the main thread
+    private void onPetChanged(PetSnapshot changedPet, int event, int arg) {
+        if (event == PetRepository.EVENT_LOADED) {
+            loadPet();
+            return;
+        }
+        if (event == PetJournal.EVENT_MILESTONE) {
+            int days = arg * Pet.MILESTONE_DAYS;
+            showMessage("🎉 Milestone reached! Your DigiBuddy is now " + days + " days old!");
+        }
+        // Changes from different threads can arrive out of order; never go back to an older pet
+        if (changedPet.getVersion() < pet.getVersion()) {
+            return;
         }
+        pet = changedPet;
+        statHistoryChart.onSamplesChanged();
+        bind(changedPet.uiModel());
+        ticker.reschedule();
     }
 
     private void updateStarsDisplay() {
         try {
-            starsContainer.removeAllViews();
-
             int totalStars = (int) pet.getAge() / 10;
 
             // Update star info text
@@ -310,16 +341,7 @@ public class MainActivity extends AppCompatActivity {
                 starInfoText.setText("");
             }
 
-            // Add larger, more visible stars
-            for (int i = 0; i < totalStars; i++) {
-                ImageView star = new ImageView(this);
-                LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(36, 36);
-                params.setMargins(4, 0, 4, 0);
-                star.setLayoutParams(params);
-                star.setImageResource(R.drawable.ic_gold_star);
-                star.setContentDescription("10-day milestone star");
-                starsContainer.addView(star);
-            }
+            starStrip.setCount(totalStars);
         } catch (Exception e) {
             // Ignore star display errors
         }
@@ -335,10 +357,7 @@ public class MainActivity extends AppCompatActivity {
         // TEMPORARY: Debug button to force age progression
         resetButton.setOnLongClickListener(v -> {
             // Long press reset button to debug age
-            double previousAge = pet.getAge();
-            pet.setAge(pet.getAge() + 1.0);
-            checkMilestones(previousAge, pet.getAge());
-            saveAndUpdate();
+            pet = repository.addAge(1);
             showMessage("Debug: Age increased to " + (int)pet.getAge() + ", Stage: " + pet.getStage());
             Log.d("StageDebug", "Manual age increase - Age: " + pet.getAge() + ", Stage: " + pet.getStage());
             return true;
@@ -422,131 +441,31 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
-    // NEW: Enhanced sleep toggle with guaranteed notification cleanup
     private void toggleSleep() {
+        pet = repository.getPet();
         if (!pet.isAlive()) {
             showMessage("Your DigiBuddy has passed away...");
             return;
         }
 
         boolean wasSleeping = pet.isSleeping();
-        pet.setSleeping(!pet.isSleeping());
-
-        // NEW: Immediate sleep state save for service synchronization
-        petPreferences.saveSleepStateImmediately(pet.isSleeping());
+        boolean sleeping = !wasSleeping;
+        // Journaled on the simulation thread; PetService hears about it through the
+        // repository and drops the energy alerts in the same pass
+        pet = repository.setSleeping(sleeping);
 
-        saveAndUpdate();
-        updateSleepButtonText();
-
-        // NEW: Force immediate notification cleanup with multiple strategies
-        if (pet.isSleeping()) {
-            // Pet is going to sleep - CLEAN UP ALL ENERGY NOTIFICATIONS
-            forceImmediateEnergyNotificationCleanup();
+        if (sleeping) {
             showMessage("Your DigiBuddy is now sleeping. Zzz...");
         } else {
             // Pet is waking up
             showMessage("Your DigiBuddy woke up!");
         }
 
-        Log.d("SleepToggle", "Sleep state changed from " + wasSleeping + " to " + pet.isSleeping());
-    }
-
-    // NEW: Comprehensive energy notification cleanup
-    private void forceImmediateEnergyNotificationCleanup() {
-        Log.d("NotificationFix", "Starting comprehensive energy notification cleanup");
-
-        // Strategy 1: Cancel notifications locally
-        cancelLocalEnergyNotifications();
-
-        // Strategy 2: Force service synchronization
-        forceServiceSleepSync();
-
-        // Strategy 3: Direct service communication
-        sendImmediateCleanupToService();
-
-        // Strategy 4: Nuclear option as fallback
-        new Handler().postDelayed(this::nuclearNotificationCleanup, 1000);
-    }
-
-    // NEW: Cancel notifications locally
-    private void cancelLocalEnergyNotifications() {
-        try {
-            NotificationManager nm = getSystemService(NotificationManager.class);
-            nm.cancel(ENERGY_WARNING_ID);
-            nm.cancel(ENERGY_EMERGENCY_ID);
-            Log.d("NotificationFix", "Local energy notifications cancelled");
-        } catch (Exception e) {
-            Log.e("NotificationFix", "Error cancelling local notifications: " + e.getMessage());
-        }
-    }
-
-    // NEW: Enhanced service synchronization
-    private void forceServiceSleepSync() {
-        try {
-            // Stop service completely
-            stopPetService();
-
-            // Wait for service to stop
-            new Handler().postDelayed(() -> {
-                // Restart service with fresh state
-                startPetService();
-
-                // Send immediate cleanup command
-                sendImmediateCleanupToService();
-
-            }, 500);
-
-        } catch (Exception e) {
-            Log.e("SleepSync", "Error in forceServiceSleepSync: " + e.getMessage());
-        }
-    }
-
-    // NEW: Direct service communication
-    private void sendImmediateCleanupToService() {
-        try {
-            Intent cleanupIntent = new Intent(this, PetService.class);
-            cleanupIntent.setAction("CLEANUP_ENERGY_NOTIFICATIONS");
-
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-                startForegroundService(cleanupIntent);
-            } else {
-                startService(cleanupIntent);
-            }
-
-            Log.d("NotificationFix", "Immediate cleanup sent to service");
-        } catch (Exception e) {
-            Log.e("NotificationFix", "Error sending cleanup to service: " + e.getMessage());
-        }
-    }
-
-    // NEW: Nuclear option - complete notification reset
-    private void nuclearNotificationCleanup() {
-        try {
-            NotificationManager nm = getSystemService(NotificationManager.class);
-            nm.cancelAll(); // Cancel ALL notifications from our app
-
-            // Additional cleanup for any persistent notifications
-            new Handler().postDelayed(() -> {
-                nm.cancel(ENERGY_WARNING_ID);
-                nm.cancel(ENERGY_EMERGENCY_ID);
-            }, 200);
-
-            Log.d("NuclearCleanup", "Nuclear notification cleanup executed");
-        } catch (Exception e) {
-            Log.e("NuclearCleanup", "Nuclear cleanup failed: " + e.getMessage());
-        }
-    }
-
-    // NEW: Cleanup all energy notifications on startup
-    private void cleanupAllEnergyNotifications() {
-        new Handler().postDelayed(() -> {
-            if (pet != null && pet.isSleeping()) {
-                forceImmediateEnergyNotificationCleanup();
-            }
-        }, 2000);
+        Log.d("SleepToggle", "Sleep state changed from " + wasSleeping + " to " + sleeping);
     }
 
     private void feedPet() {
+        pet = repository.getPet();
         if (!pet.isAlive()) {
             showMessage("Your DigiBuddy has passed away...");
             return;
@@ -557,14 +476,12 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
 
-        pet.setHunger(Math.min(100, pet.getHunger() + 25));
-        pet.setHappiness(Math.min(100, pet.getHappiness() + 5));
-        pet.setCleanliness(Math.max(0, pet.getCleanliness() - 5));
-        saveAndUpdate();
+        repository.feed();
         showMessage("Yum! Your DigiBuddy enjoyed the meal!");
     }
 
     private void playWithPet() {
+        pet = repository.getPet();
         if (!pet.isAlive()) {
             showMessage("Your DigiBuddy has passed away...");
             return;
@@ -580,15 +497,12 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
 
-        pet.setHappiness(Math.min(100, pet.getHappiness() + 15));
-        pet.setEnergy(Math.max(0, pet.getEnergy() - 8));
-        pet.setHunger(Math.max(0, pet.getHunger() - 3));
-        pet.setCleanliness(Math.max(0, pet.getCleanliness() - 3));
-        saveAndUpdate();
+        repository.play();
         showMessage("Your DigiBuddy had fun playing!");
     }
 
     private void cleanPet() {
+        pet = repository.getPet();
         if (!pet.isAlive()) {
             showMessage("Your DigiBuddy has passed away...");
             return;
@@ -599,9 +513,7 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
 
-        pet.setCleanliness(100);
-        pet.setHappiness(Math.min(100, pet.getHappiness() + 10));
-        saveAndUpdate();
+        repository.clean();
         showMessage("Your DigiBuddy feels fresh and clean!");
     }
 
@@ -610,166 +522,121 @@ public class MainActivity extends AppCompatActivity {
         builder.setTitle("Reset DigiBuddy")
                 .setMessage("Are you sure you want to reset your DigiBuddy? This cannot be undone!")
                 .setPositiveButton("Reset", (dialog, which) -> {
-                    petPreferences.resetPet();
-                    pet = new Pet();
-                    updateUI();
-                    updateSleepButtonText();
+                    repository.reset();
                     showMessage("A new DigiBuddy has arrived! Take good care of it.");
                     stopPetService();
                     startPetService();
-                    // NEW: Cleanup notifications on reset
-                    cleanupAllEnergyNotifications();
                 })
                 .setNegativeButton("Cancel", (dialog, which) -> dialog.dismiss())
                 .show();
     }
 
-    private void saveAndUpdate() {
-        pet.setLastUpdate(System.currentTimeMillis());
-        petPreferences.savePet(pet);
-        updateUI();
-    }
-
+    // Binds the latest published state
     private void updateUI() {
-        try {
-            hungerBar.setProgress((int) pet.getHunger());
-            happinessBar.setProgress((int) pet.getHappiness());
-            energyBar.setProgress((int) pet.getEnergy());
-            cleanlinessBar.setProgress((int) pet.getCleanliness());
-
-            hungerText.setText(String.valueOf((int) pet.getHunger()));
-            happinessText.setText(String.valueOf((int) pet.getHappiness()));
-            energyText.setText(String.valueOf((int) pet.getEnergy()));
-            cleanlinessText.setText(String.valueOf((int) pet.getCleanliness()));
-            ageText.setText(String.valueOf((int) pet.getAge()));
-
-            updateStarsDisplay();
-            updatePetImage();
-            updateButtonStates();
-            checkLowStats();
-        } catch (Exception e) {
-            Toast.makeText(this, "UI update error, recovering...", Toast.LENGTH_SHORT).show();
-        }
+        pet = repository.getPet();
+        bind(pet.uiModel());
     }
 
-    // Mood detection method
-    private PetMood determinePetMood() {
+    // Binds only the views whose displayed value changed since the last call
+    private void bind(PetUiModel model) {
         try {
-            if (!pet.isAlive()) {
-                return PetMood.DEFAULT;
+            int changes = model.changesFrom(uiModel);
+            uiModel = model;
+            if (changes == 0) {
+                return;
             }
 
-            // EGG STAGE: Always show egg, no moods
-            if ("egg".equals(pet.getStage())) {
-                return PetMood.DEFAULT;
+            if ((changes & PetUiModel.CHANGED_HUNGER) != 0) {
+                hungerBar.setProgress(model.hunger);
+                hungerText.setText(String.valueOf(model.hunger));
             }
-
-            if (pet.isSleeping()) {
-                return PetMood.SLEEPING;
+            if ((changes & PetUiModel.CHANGED_HAPPINESS) != 0) {
+                happinessBar.setProgress(model.happiness);
+                happinessText.setText(String.valueOf(model.happiness));
             }
-
-            // Check for critical needs first
-            if (pet.getHunger() < 20) {
-                return PetMood.HUNGRY;
+            if ((changes & PetUiModel.CHANGED_ENERGY) != 0) {
+                energyBar.setProgress(model.energy);
+                energyText.setText(String.valueOf(model.energy));
             }
-            if (pet.getEnergy() < 20) {
-                return PetMood.TIRED;
+            if ((changes & PetUiModel.CHANGED_CLEANLINESS) != 0) {
+                cleanlinessBar.setProgress(model.cleanliness);
+                cleanlinessText.setText(String.valueOf(model.cleanliness));
             }
-            if (pet.getCleanliness() < 30) {
-                return PetMood.DIRTY;
+            if ((changes & PetUiModel.CHANGED_AGE) != 0) {
+                ageText.setText(String.valueOf(model.age));
             }
 
-            // Then check for happiness (only if not in critical state)
-            if (pet.getHappiness() > 70 && pet.getEnergy() > 50 && pet.getHunger() > 50) {
-                return PetMood.HAPPY;
+            if ((changes & PetUiModel.CHANGED_STARS) != 0) {
+                updateStarsDisplay();
+            }
+            if ((changes & (PetUiModel.CHANGED_SPRITE | PetUiModel.CHANGED_STATE)) != 0) {
+                updatePetImage(model, changes);
+            }
+            if ((changes & PetUiModel.CHANGED_STATE) != 0) {
+                updateSleepButtonText();
+            }
+            if ((changes & PetUiModel.CHANGED_MESSAGE) != 0) {
+                updateMoodMessage(model.message);
+            }
+            if ((changes & PetUiModel.CHANGED_BUTTONS) != 0) {
+                updateButtonStates(model);
+            }
+            if ((changes & PetUiModel.CHANGED_ALERT) != 0) {
+                checkLowStats(model.alert);
             }
-
-            return PetMood.DEFAULT;
         } catch (Exception e) {
-            return PetMood.DEFAULT;
+            // Rebind everything next time rather than trust a half-applied model
+            uiModel = null;
+            Toast.makeText(this, "UI update error, recovering...", Toast.LENGTH_SHORT).show();
         }
     }
 
-    private void updatePetImage() {
-        try {
-            debugStageInfo();
+    private static int spriteDrawable(PetSprite sprite) {
+        switch (sprite) {
+            case BABY: return R.drawable.ic_pet_baby;
+            case TEEN: return R.drawable.ic_pet_teen;
+            case ADULT: return R.drawable.ic_pet_adult;
+            case HAPPY: return R.drawable.ic_pet_happy;
+            case HUNGRY: return R.drawable.ic_pet_hungry;
+            case TIRED: return R.drawable.ic_pet_tired;
+            case DIRTY: return R.drawable.ic_pet_dirty;
+            default: return R.drawable.ic_pet_egg;
+        }
+    }
 
-            int drawableId = R.drawable.ic_pet_egg;
-            String stage = pet.getStage();
-
-            Log.d("StageDebug", "Age: " + pet.getAge() + ", Stage: " + stage);
-
-            // First set base image by life stage
-            if ("baby".equals(stage)) {
-                drawableId = R.drawable.ic_pet_baby;
-                Log.d("DrawableDebug", "Setting base image: BABY");
-            } else if ("teen".equals(stage)) {
-                drawableId = R.drawable.ic_pet_teen;
-                Log.d("DrawableDebug", "Setting base image: TEEN");
-            } else if ("adult".equals(stage)) {
-                drawableId = R.drawable.ic_pet_adult;
-                Log.d("DrawableDebug", "Setting base image: ADULT");
-            } else {
-                drawableId = R.drawable.ic_pet_egg;
-                Log.d("DrawableDebug", "Setting base image: EGG");
+    private void updatePetImage(PetUiModel model, int changes) {
+        try {
+            // Sampled: this runs from the per-second tick
+            if (PetLog.shouldLog(Log.DEBUG, "StageDebug")) {
+                debugStageInfo();
             }
 
-            // APPLY MOOD OVERRIDES (if not egg)
-            if (!"egg".equals(stage) && pet.isAlive() && !pet.isSleeping()) {
-                PetMood mood = determinePetMood();
-                Log.d("MoodDebug", "Current mood: " + mood);
-
-                switch (mood) {
-                    case HAPPY:
-                        drawableId = R.drawable.ic_pet_happy;
-                        Log.d("DrawableDebug", "Override: HAPPY mood");
-                        break;
-                    case HUNGRY:
-                        drawableId = R.drawable.ic_pet_hungry;
-                        Log.d("DrawableDebug", "Override: HUNGRY mood");
-                        break;
-                    case TIRED:
-                        drawableId = R.drawable.ic_pet_tired;
-                        Log.d("DrawableDebug", "Override: TIRED mood");
-                        break;
-                    case DIRTY:
-                        drawableId = R.drawable.ic_pet_dirty;
-                        Log.d("DrawableDebug", "Override: DIRTY mood");
-                        break;
-                    default:
-                        Log.d("DrawableDebug", "No mood override, using life stage image");
-                        break;
+            // Life stage image, overridden by mood once hatched
+            PetLog.d("MoodDebug", "Current mood: {}", model.mood);
+            PetLog.d("DrawableDebug", "Sprite: {}", model.sprite);
+            if ((changes & PetUiModel.CHANGED_SPRITE) != 0) {
+                int drawableId = spriteDrawable(model.sprite);
+                PetLog.d("DrawableDebug", "Final drawable ID: {}", drawableId);
+                android.graphics.drawable.Drawable drawable = spriteCache.get(model.sprite, drawableId, petImage);
+                if (drawable == null) {
+                    petImage.setImageResource(drawableId);
+                } else if (petImage.getDrawable() != drawable) {
+                    petImage.setImageDrawable(drawable);
                 }
             }
 
-            // Special case for sleeping - use tired image
-            if (pet.isSleeping() && !"egg".equals(stage)) {
-                drawableId = R.drawable.ic_pet_tired;
-                Log.d("DrawableDebug", "Pet is sleeping - using TIRED image");
-            }
-
-            // Set the final image
-            Log.d("DrawableDebug", "Final drawable ID: " + drawableId);
-            petImage.setImageResource(drawableId);
-
-            // Make sure ImageView is properly configured
-            petImage.setScaleType(ImageView.ScaleType.CENTER_INSIDE);
-            petImage.setAdjustViewBounds(true);
-
             // Apply visual effects
-            if (!pet.isAlive()) {
-                petImage.setAlpha(0.5f);
-                showMessage("Your DigiBuddy has passed away... Reset to start over.");
-            } else if (pet.isSleeping()) {
-                petImage.setAlpha(0.7f);
-            } else {
-                petImage.setAlpha(1.0f);
+            if ((changes & PetUiModel.CHANGED_STATE) != 0) {
+                if (!model.alive) {
+                    petImage.setAlpha(0.5f);
+                    showMessage("death", MessageScheduler.PRIORITY_CRITICAL,
+                            "Your DigiBuddy has passed away... Reset to start over.", MessageScheduler.ALERT_COOLDOWN);
+                } else if (model.sleeping) {
+                    petImage.setAlpha(0.7f);
+                } else {
+                    petImage.setAlpha(1.0f);
+                }
             }
-
-            // Update mood message
-            PetMood currentMood = determinePetMood();
-            updateMoodMessage(currentMood);
-
         } catch (Exception e) {
             Log.e("StageDebug", "Error in updatePetImage: " + e.getMessage());
             e.printStackTrace();
@@ -783,95 +650,146 @@ public class MainActivity extends AppCompatActivity {
     }
 
     // Updated mood message method
-    private void updateMoodMessage(PetMood mood) {
+    private void updateMoodMessage(PetUiModel.Message mood) {
         try {
             String message;
-
-            if (!pet.isAlive()) {
-                message = "Your DigiBuddy has passed away... Reset to start over.";
-            } else if ("egg".equals(pet.getStage())) {
-                message = "I'm still an egg! Keep taking care of me! 🥚";
-            } else {
-                switch (mood) {
-                    case HAPPY:
-                        message = "I'm so happy! Thank you for taking good care of me! 🎉";
-                        break;
-                    case HUNGRY:
-                        message = "I'm really hungry... Can I have some food? 🍕";
-                        break;
-                    case TIRED:
-                        message = "I'm feeling very tired... I need some rest 😴";
-                        break;
-                    case SLEEPING:
-                        message = "Zzz... I'm sleeping peacefully 💤";
-                        break;
-                    case DIRTY:
-                        message = "I feel dirty and uncomfortable... Can you clean me? 🛁";
-                        break;
-                    default:
-                        if (pet.getHappiness() > 70) {
-                            message = "I'm having a great day! Thanks for being awesome!";
-                        } else if (pet.getEnergy() > 80) {
-                            message = "I'm full of energy! Let's do something fun!";
-                        } else {
-                            message = "Hello! I'm doing okay today!";
-                        }
-                        break;
-                }
+            switch (mood) {
+                case DEAD:
+                    message = "Your DigiBuddy has passed away... Reset to start over.";
+                    break;
+                case EGG:
+                    message = "I'm still an egg! Keep taking care of me! 🥚";
+                    break;
+                case HAPPY:
+                    message = "I'm so happy! Thank you for taking good care of me! 🎉";
+                    break;
+                case HUNGRY:
+                    message = "I'm really hungry... Can I have some food? 🍕";
+                    break;
+                case TIRED:
+                    message = "I'm feeling very tired... I need some rest 😴";
+                    break;
+                case SLEEPING:
+                    message = "Zzz... I'm sleeping peacefully 💤";
+                    break;
+                case DIRTY:
+                    message = "I feel dirty and uncomfortable... Can you clean me? 🛁";
+                    break;
+                case GREAT_DAY:
+                    message = "I'm having a great day! Thanks for being awesome!";
+                    break;
+                case ENERGETIC:
+                    message = "I'm full of energy! Let's do something fun!";
+                    break;
+                default:
+                    message = "Hello! I'm doing okay today!";
+                    break;
             }
 
-            messageText.setText(message);
+            moodText = message;
+            // A message on screen keeps the line until it expires
+            if (!messages.isShowing(System.currentTimeMillis())) {
+                messageText.setText(message);
+            }
         } catch (Exception e) {
             // Ignore message errors
         }
     }
 
-    private void checkLowStats() {
-        if (!pet.isAlive()) return;
-
-        // Warning alerts at 25%
-        if (pet.getHunger() <= 25 && pet.getHunger() > 15) {
-            showMessage("🍕 Your DigiBuddy is getting hungry! Consider feeding soon.");
-        } else if (pet.getHappiness() <= 25 && pet.getHappiness() > 15) {
-            showMessage("😢 Your DigiBuddy is feeling sad! Some playtime would help!");
-        } else if (pet.getEnergy() <= 25 && pet.getEnergy() > 15) {
-            showMessage("😴 Your DigiBuddy is getting tired! Maybe some rest soon?");
-        } else if (pet.getCleanliness() <= 25 && pet.getCleanliness() > 15) {
-            showMessage("🛁 Your DigiBuddy is getting dirty! A cleaning would be nice!");
-        }
+    // Shown when the pet enters a low stat band. Keyed per stat, so a stat that dips
+    // in and out of the same band stays quiet for the cooldown but going from
+    // warning to emergency (or back) is shown at once
+    private void checkLowStats(PetUiModel.Alert alert) {
+        switch (alert) {
+            // Warning alerts at 25%
+            case HUNGER_WARNING:
+                showAlert("hunger", MessageScheduler.PRIORITY_WARNING, "🍕 Your DigiBuddy is getting hungry! Consider feeding soon.");
+                break;
+            case HAPPINESS_WARNING:
+                showAlert("happiness", MessageScheduler.PRIORITY_WARNING, "😢 Your DigiBuddy is feeling sad! Some playtime would help!");
+                break;
+            case ENERGY_WARNING:
+                showAlert("energy", MessageScheduler.PRIORITY_WARNING, "😴 Your DigiBuddy is getting tired! Maybe some rest soon?");
+                break;
+            case CLEANLINESS_WARNING:
+                showAlert("cleanliness", MessageScheduler.PRIORITY_WARNING, "🛁 Your DigiBuddy is getting dirty! A cleaning would be nice!");
+                break;
+            // Emergency alerts at 15%
+            case HUNGER_EMERGENCY:
+                showAlert("hunger", MessageScheduler.PRIORITY_EMERGENCY, "⚠️ Your DigiBuddy is very hungry! Feed it now!");
+                break;
+            case HAPPINESS_EMERGENCY:
+                showAlert("happiness", MessageScheduler.PRIORITY_EMERGENCY, "⚠️ Your DigiBuddy is very sad! Play with it urgently!");
+                break;
+            case ENERGY_EMERGENCY:
+                showAlert("energy", MessageScheduler.PRIORITY_EMERGENCY, "⚠️ Your DigiBuddy is exhausted! Let it sleep immediately!");
+                break;
+            case CLEANLINESS_EMERGENCY:
+                showAlert("cleanliness", MessageScheduler.PRIORITY_EMERGENCY, "⚠️ Your DigiBuddy is very dirty! Clean it right away!");
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void setCareButtonsEnabled(boolean enabled) {
+        feedButton.setEnabled(enabled);
+        playButton.setEnabled(enabled);
+        sleepButton.setEnabled(enabled);
+        cleanButton.setEnabled(enabled);
+        resetButton.setEnabled(enabled);
+    }
+
+    private void updateButtonStates(PetUiModel model) {
+        feedButton.setEnabled(model.feedEnabled);
+        playButton.setEnabled(model.playEnabled);
+        sleepButton.setEnabled(model.alive);
+        cleanButton.setEnabled(model.cleanEnabled);
+        resetButton.setEnabled(true);
+    }
 
-        // Emergency alerts at 15%
-        else if (pet.getHunger() <= 15 && pet.getHunger() > 0) {
-            showMessage("⚠️ Your DigiBuddy is very hungry! Feed it now!");
-        } else if (pet.getHappiness() <= 15 && pet.getHappiness() > 0) {
-            showMessage("⚠️ Your DigiBuddy is very sad! Play with it urgently!");
-        } else if (pet.getEnergy() <= 15 && pet.getEnergy() > 0) {
-            showMessage("⚠️ Your DigiBuddy is exhausted! Let it sleep immediately!");
-        } else if (pet.getCleanliness() <= 15 && pet.getCleanliness() > 0) {
-            showMessage("⚠️ Your DigiBuddy is very dirty! Clean it right away!");
-        }
+    // Feedback for a user action; the same text is not repeated while it is showing
+    private void showMessage(String message) {
+        showMessage(message, MessageScheduler.PRIORITY_INFO, message, MessageScheduler.DISPLAY_MILLIS);
     }
 
-    private void updateButtonStates() {
-        boolean isAlive = pet.isAlive();
-        boolean isSleeping = pet.isSleeping();
+    private void showAlert(String stat, int priority, String message) {
+        showMessage("alert_" + stat, priority, message, MessageScheduler.ALERT_COOLDOWN);
+    }
 
-        feedButton.setEnabled(isAlive && !isSleeping);
-        playButton.setEnabled(isAlive && !isSleeping && pet.getEnergy() >= 20);
-        sleepButton.setEnabled(isAlive);
-        cleanButton.setEnabled(isAlive && !isSleeping);
-        resetButton.setEnabled(true);
+    private void showMessage(String key, int priority, String message, long cooldown) {
+        MessageScheduler.Message shown = messages.offer(key, priority, message, cooldown, System.currentTimeMillis());
+        if (shown != null) {
+            display(shown);
+        }
     }
 
-    private void showMessage(String message) {
+    // messageText and the Toast always show the same message, and a new one replaces
+    // the Toast on screen instead of queueing behind it
+    private void display(MessageScheduler.Message message) {
         try {
-            messageText.setText(message);
-            Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+            messageText.setText(message.text);
+            if (currentToast != null) {
+                currentToast.cancel();
+            }
+            currentToast = Toast.makeText(this, message.text, Toast.LENGTH_SHORT);
+            currentToast.show();
+            uiHandler.removeCallbacks(messageExpired);
+            uiHandler.postDelayed(messageExpired, MessageScheduler.DISPLAY_MILLIS);
         } catch (Exception e) {
             // Ignore message errors
         }
     }
 
+    private void onMessageExpired() {
+        MessageScheduler.Message next = messages.poll(System.currentTimeMillis());
+        if (next != null) {
+            display(next);
+        } else if (moodText != null) {
+            messageText.setText(moodText);
+        }
+    }
+
     private void updateSleepButtonText() {
         if (pet.isSleeping()) {
             sleepButton.setText("⏰ WAKE");
@@ -880,52 +798,39 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
-    private void startUIUpdates() {
-        uiUpdateRunnable = new Runnable() {
-            @Override
-            public void run() {
-                if (pet.isAlive()) {
-                    double previousAge = pet.getAge();
-
-                    if (pet.isSleeping()) {
-                        pet.setEnergy(Math.min(100, pet.getEnergy() + 0.004));
-                        pet.setHunger(Math.max(0, pet.getHunger() - 0.0004));
-                        pet.setHappiness(Math.max(0, pet.getHappiness() - 0.00027));
-                        pet.setCleanliness(Math.max(0, pet.getCleanliness() - 0.00013));
-                    } else {
-                        pet.setHunger(Math.max(0, pet.getHunger() - 0.00133));
-                        pet.setHappiness(Math.max(0, pet.getHappiness() - 0.00067));
-                        pet.setEnergy(Math.max(0, pet.getEnergy() - 0.00067));
-                        pet.setCleanliness(Math.max(0, pet.getCleanliness() - 0.00027));
-                    }
-
-                    pet.setAge(pet.getAge() + 0.00001157);
-                    checkMilestones(previousAge, pet.getAge());
-                    pet.updateStage();
-                    pet.checkDeath();
-                    saveAndUpdate();
-                }
-                uiHandler.postDelayed(this, 1000);
-            }
-        };
-        uiHandler.postDelayed(uiUpdateRunnable, 1000);
+    @Override
+    protected void onStart() {
+        super.onStart();
+        repository.addListener(petListener, uiHandler);
+        ticker.start();
     }
 
     @Override
     protected void onResume() {
         super.onResume();
         loadPet();
-        // NEW: Cleanup notifications when resuming
-        if (pet != null && pet.isSleeping()) {
-            cleanupAllEnergyNotifications();
-        }
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        repository.flush();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        ticker.stop();
+        repository.removeListener(petListener);
+        repository.flush();
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (uiHandler != null && uiUpdateRunnable != null) {
-            uiHandler.removeCallbacks(uiUpdateRunnable);
+        uiHandler.removeCallbacks(messageExpired);
+        if (currentToast != null) {
+            currentToast.cancel();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.example.digibuddy;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Decides which in-app messages reach messageText and a Toast, so both always show
+// the same one. Only one message is on screen at a time and at most one waits
+// behind it: a message of higher priority replaces the one showing, anything else
+// takes the single pending slot if it outranks what is there. Nothing queues up
+// behind the system toast service however often callers fire.
+//
+// Each message has a key. A key repeats only after its cooldown, except when it
+// comes back at a different priority, so a stat moving from warning to emergency
+// (or back) is shown at once while the same band flapping stays quiet. Pure Java;
+// the caller passes the clock and shows whatever offer() and poll() hand back.
+public final class MessageScheduler {
+    public static final int PRIORITY_INFO = 0;
+    public static final int PRIORITY_WARNING = 1;
+    public static final int PRIORITY_EMERGENCY = 2;
+    public static final int PRIORITY_CRITICAL = 3;
+
+    // How long a message holds the screen; matches Toast.LENGTH_SHORT
+    public static final long DISPLAY_MILLIS = 2000;
+    // How long an on-screen alert stays quiet before the same key shows again; tuned
+    // for the screen on its own, apart from how often notifications re-fire
+    public static final long ALERT_COOLDOWN = 5 * 60 * 1000;
+
+    public static final class Message {
+        public final String key;
+        public final int priority;
+        public final String text;
+        final long cooldown;
+
+        Message(String key, int priority, String text, long cooldown) {
+            this.key = key;
+            this.priority = priority;
+            this.text = text;
+            this.cooldown = cooldown;
+        }
+    }
+
+    // Key -> {last shown time, priority it was shown at, its cooldown}; keys are a
+    // fixed set of message kinds, so this stays small
+    private final Map<String, long[]> lastShown = new HashMap<>();
+
+    private Message showing;
+    private long showingUntil = Long.MIN_VALUE;
+    private Message pending;
+
+    // The message to show now, or null if it was deduplicated or is waiting
+    public Message offer(String key, int priority, String text, long cooldown, long now) {
+        if (isDuplicate(key, priority, now)) {
+            return null;
+        }
+        Message message = new Message(key, priority, text, Math.max(cooldown, DISPLAY_MILLIS));
+        if (!isShowing(now) || priority > showing.priority) {
+            if (pending != null && pending.key.equals(key)) {
+                pending = null;
+            }
+            return show(message, now);
+        }
+        if (pending == null || priority >= pending.priority || pending.key.equals(key)) {
+            pending = message;
+        }
+        return null;
+    }
+
+    // Once the current message has had its time: the pending one to show, or null
+    public Message poll(long now) {
+        if (isShowing(now)) {
+            return null;
+        }
+        showing = null;
+        Message next = pending;
+        pending = null;
+        if (next == null || isDuplicate(next.key, next.priority, now)) {
+            return null;
+        }
+        return show(next, now);
+    }
+
+    public boolean isShowing(long now) {
+        return showing != null && now < showingUntil;
+    }
+
+    // When poll() should next be called, or Long.MAX_VALUE if nothing is on screen
+    public long nextPollAt() {
+        return showing == null ? Long.MAX_VALUE : showingUntil;
+    }
+
+    public boolean hasPending() {
+        return pending != null;
+    }
+
+    private boolean isDuplicate(String key, int priority, long now) {
+        long[] last = lastShown.get(key);
+        if (last == null) {
+            return false;
+        }
+        return last[1] == priority && now - last[0] < last[2];
+    }
+
+    private Message show(Message message, long now) {
+        long[] last = lastShown.get(message.key);
+        if (last == null) {
+            last = new long[3];
+            lastShown.put(message.key, last);
+        }
+        last[0] = now;
+        last[1] = message.priority;
+        last[2] = message.cooldown;
+        showing = message;
+        showingUntil = now + DISPLAY_MILLIS;
+        return message;
+    }
+}
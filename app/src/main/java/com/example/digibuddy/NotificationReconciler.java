@@ -0,0 +1,77 @@
+package com.example.digibuddy;
+
+// Decides which alert notifications to post and cancel. The notifications that should
+// be showing follow from the active rules alone: nothing, the one rule on its own, or
+// the summary for two or more. That set is diffed against what the notification
+// manager reports as posted, so stale alerts (the pet fell asleep, a previous process
+// left them behind) go away in the same pass that posts new ones, with no timed
+// retries. An alert the user swiped away stays away until its rule fires again.
+// Notifications are slots in a bit mask: slot i is AlertRuleEngine.RULES[i],
+// SUMMARY_SLOT is the summary.
+public final class NotificationReconciler {
+    public static final int SUMMARY_SLOT = AlertRuleEngine.RULES.length;
+    public static final int SUMMARY_ID = 6000;
+
+    // Desired slots this reconciler has posted, including ones since dismissed
+    private long shown;
+    // Rules listed in the posted summary, to tell when its text is out of date
+    private long summaryContent;
+
+    private long toPost;
+    private long toCancel;
+
+    // active and fired are AlertRuleEngine masks; posted is a slot mask
+    public void reconcile(long active, long fired, long posted) {
+        long desired = desiredSlots(active);
+        long dismissed = shown & ~posted;
+        toCancel = posted & ~desired;
+        toPost = desired & ~posted & ~dismissed;
+        if (fired != 0) {
+            // New or due again: post over the old one so it alerts
+            toPost |= desired;
+        }
+        long summary = 1L << SUMMARY_SLOT;
+        if ((desired & posted & summary) != 0 && active != summaryContent) {
+            toPost |= summary;
+        }
+        if ((toPost & summary) != 0) {
+            summaryContent = active;
+        }
+        shown = desired & (shown | posted | toPost);
+    }
+
+    // Slots to (re)post after the last reconcile()
+    public long getToPost() {
+        return toPost;
+    }
+
+    // Slots to cancel after the last reconcile()
+    public long getToCancel() {
+        return toCancel;
+    }
+
+    static long desiredSlots(long active) {
+        int count = Long.bitCount(active);
+        if (count == 0) {
+            return 0;
+        }
+        return count == 1 ? active : 1L << SUMMARY_SLOT;
+    }
+
+    // Slot bit for a posted notification id, or 0 if it is not an alert
+    public static long slotOf(int notificationId) {
+        if (notificationId == SUMMARY_ID) {
+            return 1L << SUMMARY_SLOT;
+        }
+        for (int i = 0; i < AlertRuleEngine.RULES.length; i++) {
+            if (AlertRuleEngine.RULES[i].notificationId == notificationId) {
+                return 1L << i;
+            }
+        }
+        return 0;
+    }
+
+    public static int idOf(int slot) {
+        return slot == SUMMARY_SLOT ? SUMMARY_ID : AlertRuleEngine.RULES[slot].notificationId;
+    }
+}
@@ -1,54 +1,88 @@
 package com.example.digibuddy;
 
+// Stats are kept as fixed-point units and age as whole seconds, see PetState. The
+// double accessors convert at the edge; the *Units and AgeSeconds accessors are the
+// primitives that subclasses backed by other storage override.
 public class Pet {
-    private double hunger;
-    private double happiness;
-    private double energy;
-    private double age;
-    private String stage;
+    // A milestone (and a star) is earned every this many days of age
+    public static final int MILESTONE_DAYS = 10;
+
+    private int hunger;
+    private int happiness;
+    private int energy;
+    private int cleanliness;
+    private long ageSeconds;
+    private PetStage stage;
     private boolean isSleeping;
     private boolean isAlive;
-    private double cleanliness;
     private long lastUpdate;
     private int milestonesAchieved;
 
     public Pet() {
-        this.hunger = 100;
-        this.happiness = 100;
-        this.energy = 100;
-        this.age = 0;
-        this.stage = "egg";
+        this.hunger = PetState.MAX_UNITS;
+        this.happiness = PetState.MAX_UNITS;
+        this.energy = PetState.MAX_UNITS;
+        this.ageSeconds = 0;
+        this.stage = PetStage.EGG;
         this.isSleeping = false;
         this.isAlive = true;
-        this.cleanliness = 100;
+        this.cleanliness = PetState.MAX_UNITS;
         this.lastUpdate = System.currentTimeMillis();
         this.milestonesAchieved = 0;
     }
 
-    public double getHunger() { return hunger; }
-    public void setHunger(double hunger) {
-        this.hunger = Math.max(0, Math.min(100, hunger));
+    // Goes through the accessors so subclasses backed by other storage copy correctly
+    public void copyFrom(Pet other) {
+        setHungerUnits(other.getHungerUnits());
+        setHappinessUnits(other.getHappinessUnits());
+        setEnergyUnits(other.getEnergyUnits());
+        setAgeSeconds(other.getAgeSeconds());
+        setLifeStage(other.getLifeStage());
+        setSleeping(other.isSleeping());
+        setAlive(other.isAlive());
+        setCleanlinessUnits(other.getCleanlinessUnits());
+        setLastUpdate(other.getLastUpdate());
+        setMilestonesAchieved(other.getMilestonesAchieved());
     }
 
-    public double getHappiness() { return happiness; }
-    public void setHappiness(double happiness) {
-        this.happiness = Math.max(0, Math.min(100, happiness));
-    }
+    public int getHungerUnits() { return hunger; }
+    public void setHungerUnits(int units) { hunger = PetState.clampUnits(units); }
 
-    public double getEnergy() { return energy; }
-    public void setEnergy(double energy) {
-        this.energy = Math.max(0, Math.min(100, energy));
-    }
+    public int getHappinessUnits() { return happiness; }
+    public void setHappinessUnits(int units) { happiness = PetState.clampUnits(units); }
+
+    public int getEnergyUnits() { return energy; }
+    public void setEnergyUnits(int units) { energy = PetState.clampUnits(units); }
+
+    public int getCleanlinessUnits() { return cleanliness; }
+    public void setCleanlinessUnits(int units) { cleanliness = PetState.clampUnits(units); }
+
+    public long getAgeSeconds() { return ageSeconds; }
+    // Does not touch the stage; see setAge
+    public void setAgeSeconds(long seconds) { ageSeconds = seconds; }
 
-    public double getAge() { return age; }
+    public PetStage getLifeStage() { return stage; }
+    public void setLifeStage(PetStage stage) { this.stage = stage; }
+
+    public double getHunger() { return PetState.toPoints(getHungerUnits()); }
+    public void setHunger(double hunger) { setHungerUnits(PetState.toUnits(hunger)); }
+
+    public double getHappiness() { return PetState.toPoints(getHappinessUnits()); }
+    public void setHappiness(double happiness) { setHappinessUnits(PetState.toUnits(happiness)); }
+
+    public double getEnergy() { return PetState.toPoints(getEnergyUnits()); }
+    public void setEnergy(double energy) { setEnergyUnits(PetState.toUnits(energy)); }
+
+    // In days
+    public double getAge() { return PetState.toDays(getAgeSeconds()); }
     public void setAge(double age) {
-        this.age = age;
+        setAgeSeconds(PetState.toSeconds(age));
         // Auto-update stage when age changes
         updateStage();
     }
 
-    public String getStage() { return stage; }
-    public void setStage(String stage) { this.stage = stage; }
+    public String getStage() { return getLifeStage().id; }
+    public void setStage(String stage) { setLifeStage(PetStage.fromId(stage)); }
 
     public boolean isSleeping() { return isSleeping; }
     public void setSleeping(boolean sleeping) { isSleeping = sleeping; }
@@ -56,10 +90,8 @@ public class Pet {
     public boolean isAlive() { return isAlive; }
     public void setAlive(boolean alive) { isAlive = alive; }
 
-    public double getCleanliness() { return cleanliness; }
-    public void setCleanliness(double cleanliness) {
-        this.cleanliness = Math.max(0, Math.min(100, cleanliness));
-    }
+    public double getCleanliness() { return PetState.toPoints(getCleanlinessUnits()); }
+    public void setCleanliness(double cleanliness) { setCleanlinessUnits(PetState.toUnits(cleanliness)); }
 
     public long getLastUpdate() { return lastUpdate; }
     public void setLastUpdate(long lastUpdate) { this.lastUpdate = lastUpdate; }
@@ -69,34 +101,49 @@ public class Pet {
         this.milestonesAchieved = milestonesAchieved;
     }
 
+    // Care action effects, shared by MainActivity and journal replay
+    public void feed() {
+        setHungerUnits(getHungerUnits() + 25 * PetState.UNITS_PER_POINT);
+        setHappinessUnits(getHappinessUnits() + 5 * PetState.UNITS_PER_POINT);
+        setCleanlinessUnits(getCleanlinessUnits() - 5 * PetState.UNITS_PER_POINT);
+    }
+
+    public void play() {
+        setHappinessUnits(getHappinessUnits() + 15 * PetState.UNITS_PER_POINT);
+        setEnergyUnits(getEnergyUnits() - 8 * PetState.UNITS_PER_POINT);
+        setHungerUnits(getHungerUnits() - 3 * PetState.UNITS_PER_POINT);
+        setCleanlinessUnits(getCleanlinessUnits() - 3 * PetState.UNITS_PER_POINT);
+    }
+
+    public void clean() {
+        setCleanlinessUnits(PetState.MAX_UNITS);
+        setHappinessUnits(getHappinessUnits() + 10 * PetState.UNITS_PER_POINT);
+    }
+
+    public static String stageForAge(double age) {
+        return PetStage.forAgeSeconds(PetState.toSeconds(age)).id;
+    }
+
     public void updateStage() {
-        if (age >= 7) {
-            stage = "adult";
-        } else if (age >= 3) {
-            stage = "teen";
-        } else if (age >= 1) {
-            stage = "baby";
-        } else {
-            stage = "egg";
-        }
+        setLifeStage(PetStage.forAgeSeconds(getAgeSeconds()));
     }
 
     public void checkDeath() {
-        if (hunger <= 0 || happiness <= 0 || energy <= 0 || cleanliness <= 0) {
-            isAlive = false;
+        if (getHungerUnits() <= 0 || getHappinessUnits() <= 0 || getEnergyUnits() <= 0
+                || getCleanlinessUnits() <= 0) {
+            setAlive(false);
         }
     }
 
     public void reset() {
-        this.hunger = 100;
-        this.happiness = 100;
-        this.energy = 100;
-        this.age = 0;
-        this.stage = "egg";
-        this.isSleeping = false;
-        this.isAlive = true;
-        this.cleanliness = 100;
-        this.lastUpdate = System.currentTimeMillis();
-        this.milestonesAchieved = 0;
+        setHungerUnits(PetState.MAX_UNITS);
+        setHappinessUnits(PetState.MAX_UNITS);
+        setEnergyUnits(PetState.MAX_UNITS);
+        setAge(0);
+        setSleeping(false);
+        setAlive(true);
+        setCleanlinessUnits(PetState.MAX_UNITS);
+        setLastUpdate(System.currentTimeMillis());
+        setMilestonesAchieved(0);
     }
-}
\ No newline at end of file
+}
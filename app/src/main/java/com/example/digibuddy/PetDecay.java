@@ -0,0 +1,212 @@
+package com.example.digibuddy;
+
+// Closed-form stat decay shared by MainActivity and PetService.
+// Every stat moves linearly while the sleep state is unchanged, so the state after
+// any elapsed time is computed directly instead of stepping minute by minute.
+// advance() works in whole seconds and integer stat units (see PetState): the
+// sub-second remainder stays in lastUpdate for the next call, so a 1 Hz tick that
+// fires after 1003ms loses nothing, and any split of the same span gives the same state.
+public final class PetDecay {
+    public static final long MILLIS_PER_MINUTE = 60 * 1000;
+    public static final double MINUTES_PER_DAY = 1440.0;
+
+    // Awake rates (points per minute)
+    public static final double HUNGER_RATE = 0.08;
+    public static final double HAPPINESS_RATE = 0.04;
+    public static final double ENERGY_RATE = 0.04;
+    public static final double CLEANLINESS_RATE = 0.016;
+
+    // Sleeping multipliers and energy regeneration (points per minute)
+    public static final double SLEEP_HUNGER_FACTOR = 0.3;
+    public static final double SLEEP_HAPPINESS_FACTOR = 0.4;
+    public static final double SLEEP_CLEANLINESS_FACTOR = 0.5;
+    public static final double SLEEP_ENERGY_GAIN = 0.24;
+
+    public static final double MAX_STAT = 100;
+
+    // The rates above in PetState units per second
+    private static final int HUNGER_UNITS = PetState.unitsPerSecond(hungerRate(false));
+    private static final int HUNGER_SLEEP_UNITS = PetState.unitsPerSecond(hungerRate(true));
+    private static final int HAPPINESS_UNITS = PetState.unitsPerSecond(happinessRate(false));
+    private static final int HAPPINESS_SLEEP_UNITS = PetState.unitsPerSecond(happinessRate(true));
+    private static final int ENERGY_UNITS = PetState.unitsPerSecond(energyRate(false));
+    private static final int ENERGY_SLEEP_UNITS = PetState.unitsPerSecond(energyRate(true));
+    private static final int CLEANLINESS_UNITS = PetState.unitsPerSecond(cleanlinessRate(false));
+    private static final int CLEANLINESS_SLEEP_UNITS = PetState.unitsPerSecond(cleanlinessRate(true));
+
+    private PetDecay() {
+    }
+
+    public static double hungerRate(boolean sleeping) {
+        return sleeping ? HUNGER_RATE * SLEEP_HUNGER_FACTOR : HUNGER_RATE;
+    }
+
+    public static double happinessRate(boolean sleeping) {
+        return sleeping ? HAPPINESS_RATE * SLEEP_HAPPINESS_FACTOR : HAPPINESS_RATE;
+    }
+
+    // Negative while sleeping: energy is regenerating
+    public static double energyRate(boolean sleeping) {
+        return sleeping ? -SLEEP_ENERGY_GAIN : ENERGY_RATE;
+    }
+
+    public static double cleanlinessRate(boolean sleeping) {
+        return sleeping ? CLEANLINESS_RATE * SLEEP_CLEANLINESS_FACTOR : CLEANLINESS_RATE;
+    }
+
+    public static int hungerUnitsPerSecond(boolean sleeping) {
+        return sleeping ? HUNGER_SLEEP_UNITS : HUNGER_UNITS;
+    }
+
+    public static int happinessUnitsPerSecond(boolean sleeping) {
+        return sleeping ? HAPPINESS_SLEEP_UNITS : HAPPINESS_UNITS;
+    }
+
+    public static int energyUnitsPerSecond(boolean sleeping) {
+        return sleeping ? ENERGY_SLEEP_UNITS : ENERGY_UNITS;
+    }
+
+    public static int cleanlinessUnitsPerSecond(boolean sleeping) {
+        return sleeping ? CLEANLINESS_SLEEP_UNITS : CLEANLINESS_UNITS;
+    }
+
+    // A pet that still has all starting values has never been looked after; catchUp()
+    // does not decay it
+    public static boolean isFresh(Pet pet) {
+        return pet.getHungerUnits() == PetState.MAX_UNITS &&
+                pet.getHappinessUnits() == PetState.MAX_UNITS &&
+                pet.getEnergyUnits() == PetState.MAX_UNITS &&
+                pet.getAgeSeconds() == 0 &&
+                pet.getCleanlinessUnits() == PetState.MAX_UNITS;
+    }
+
+    // Value of a stat after the given minutes, clamped to [0, 100]
+    public static double valueAfter(double value, double ratePerMinute, double minutes) {
+        return Math.max(0, Math.min(MAX_STAT, value - ratePerMinute * minutes));
+    }
+
+    // Minutes until a decaying stat first reaches the threshold, or +Infinity if it never does
+    public static double minutesUntil(double value, double ratePerMinute, double threshold) {
+        if (value <= threshold) {
+            return 0;
+        }
+        if (ratePerMinute <= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return (value - threshold) / ratePerMinute;
+    }
+
+    // Minutes until a decaying stat next reaches any threshold strictly below its current value
+    public static double minutesUntilNextThreshold(double value, double ratePerMinute, double[] thresholds) {
+        double minutes = Double.POSITIVE_INFINITY;
+        for (double threshold : thresholds) {
+            if (value > threshold) {
+                minutes = Math.min(minutes, minutesUntil(value, ratePerMinute, threshold));
+            }
+        }
+        return minutes;
+    }
+
+    // Whole seconds of decay until a stat falling at unitsPerSecond is at or below the
+    // nearest threshold (in points) under it, or Long.MAX_VALUE if it never will be.
+    // advance() decays in whole seconds, so the stat really is there after this many.
+    public static long secondsUntilNextThreshold(int units, int unitsPerSecond, double[] thresholds) {
+        if (unitsPerSecond <= 0) {
+            return Long.MAX_VALUE;
+        }
+        long seconds = Long.MAX_VALUE;
+        for (double threshold : thresholds) {
+            long target = (long) Math.floor(threshold * PetState.UNITS_PER_POINT);
+            if (units > target) {
+                seconds = Math.min(seconds, (units - target + unitsPerSecond - 1) / unitsPerSecond);
+            }
+        }
+        return seconds;
+    }
+
+    // Minutes until a living pet reaches the given age
+    public static double minutesUntilAge(Pet pet, double targetAge) {
+        return Math.max(0, (targetAge - pet.getAge()) * MINUTES_PER_DAY);
+    }
+
+    // Minutes until the first stat hits zero under the current sleep state
+    public static double minutesUntilDeath(Pet pet) {
+        long seconds = secondsUntilDeath(pet);
+        return seconds == Long.MAX_VALUE ? Double.POSITIVE_INFINITY : seconds / 60.0;
+    }
+
+    // Whole seconds until the first stat hits zero, or Long.MAX_VALUE if none ever does
+    public static long secondsUntilDeath(Pet pet) {
+        if (!pet.isAlive()) {
+            return 0;
+        }
+        boolean sleeping = pet.isSleeping();
+        long seconds = secondsUntilZero(pet.getHungerUnits(), hungerUnitsPerSecond(sleeping));
+        seconds = Math.min(seconds, secondsUntilZero(pet.getHappinessUnits(), happinessUnitsPerSecond(sleeping)));
+        seconds = Math.min(seconds, secondsUntilZero(pet.getEnergyUnits(), energyUnitsPerSecond(sleeping)));
+        seconds = Math.min(seconds, secondsUntilZero(pet.getCleanlinessUnits(), cleanlinessUnitsPerSecond(sleeping)));
+        return seconds;
+    }
+
+    private static long secondsUntilZero(int units, int unitsPerSecond) {
+        if (units <= 0) {
+            return 0;
+        }
+        if (unitsPerSecond <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return (units + unitsPerSecond - 1) / unitsPerSecond;
+    }
+
+    // Advances the pet from its lastUpdate to now in O(1), whatever the gap.
+    // Returns the number of minutes actually simulated (stops at the moment of death).
+    public static double advance(Pet pet, long now) {
+        long elapsedMillis = now - pet.getLastUpdate();
+        if (elapsedMillis <= 0 || !pet.isAlive()) {
+            pet.setLastUpdate(Math.max(now, pet.getLastUpdate()));
+            return 0;
+        }
+
+        long seconds = elapsedMillis / 1000;
+        if (seconds == 0) {
+            // Less than a second: leave it in lastUpdate for the next call
+            return 0;
+        }
+        long deathSeconds = secondsUntilDeath(pet);
+        boolean dies = deathSeconds <= seconds;
+        if (dies) {
+            seconds = deathSeconds;
+        }
+
+        boolean sleeping = pet.isSleeping();
+        pet.setHungerUnits(unitsAfter(pet.getHungerUnits(), hungerUnitsPerSecond(sleeping), seconds));
+        pet.setHappinessUnits(unitsAfter(pet.getHappinessUnits(), happinessUnitsPerSecond(sleeping), seconds));
+        pet.setEnergyUnits(unitsAfter(pet.getEnergyUnits(), energyUnitsPerSecond(sleeping), seconds));
+        pet.setCleanlinessUnits(unitsAfter(pet.getCleanlinessUnits(), cleanlinessUnitsPerSecond(sleeping), seconds));
+        pet.setAgeSeconds(pet.getAgeSeconds() + seconds);
+        pet.updateStage();
+
+        if (dies) {
+            pet.setAlive(false);
+            pet.setLastUpdate(now);
+        } else {
+            pet.setLastUpdate(pet.getLastUpdate() + seconds * 1000);
+        }
+        return seconds / 60.0;
+    }
+
+    // The offline catch-up on load and in PetService. Like advance(), except that the
+    // gap a fresh pet spent waiting for its first look only moves lastUpdate on; the
+    // live ticks while the pet is on screen always use advance().
+    public static double catchUp(Pet pet, long now) {
+        if (pet.isAlive() && isFresh(pet)) {
+            pet.setLastUpdate(Math.max(now, pet.getLastUpdate()));
+            return 0;
+        }
+        return advance(pet, now);
+    }
+
+    private static int unitsAfter(int units, int unitsPerSecond, long seconds) {
+        return PetState.clampUnits(units - unitsPerSecond * seconds);
+    }
+}
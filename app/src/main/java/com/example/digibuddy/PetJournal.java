@@ -0,0 +1,223 @@
+package com.example.digibuddy;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+// Append-only journal of care actions and simulation ticks on top of a snapshot.
+// The header names the snapshot sequence the records apply to, so a journal that
+// was already folded into a newer snapshot is recognised and never replayed twice.
+// Replaying a record advances the pet to the record's timestamp with PetDecay and
+// then applies the event, which reproduces the live state. EVENT_IDLE is the one
+// record that does not decay: it replays PetDecay.catchUp skipping a fresh pet's
+// wait, which only moved lastUpdate on.
+//
+// Header (HEADER_SIZE bytes): int magic, int version, long base snapshot sequence
+// Record (RECORD_SIZE bytes): long timestamp, short type, short arg, int CRC32 of bytes 0..7
+public class PetJournal {
+    public static final int EVENT_TICK = 1;
+    public static final int EVENT_FEED = 2;
+    public static final int EVENT_PLAY = 3;
+    public static final int EVENT_CLEAN = 4;
+    public static final int EVENT_SLEEP = 5;
+    public static final int EVENT_WAKE = 6;
+    public static final int EVENT_RESET = 7;
+    public static final int EVENT_MILESTONE = 8; // arg: milestones achieved
+    public static final int EVENT_DEATH = 9; // arg: DEATH_* bits of the stats at zero
+    public static final int EVENT_DEBUG_AGE = 10; // arg: days added
+    public static final int EVENT_IDLE = 11; // a fresh pet caught up without decaying
+
+    public static final int DEATH_HUNGER = 1;
+    public static final int DEATH_HAPPINESS = 1 << 1;
+    public static final int DEATH_ENERGY = 1 << 2;
+    public static final int DEATH_CLEANLINESS = 1 << 3;
+
+    static final int MAGIC = 0x444a524e; // "DJRN"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 16;
+    private static final int RECORD_DATA_SIZE = 12;
+
+    public interface Visitor {
+        void onRecord(long timestamp, int type, int arg);
+    }
+
+    private final File file;
+    private final File previousFile;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32 crc = new CRC32();
+
+    public PetJournal(File file) {
+        this.file = file;
+        this.previousFile = new File(file.getPath() + ".old");
+    }
+
+    // Snapshot sequence the records apply to, or -1 when there is no journal
+    public synchronized long getBaseSequence() throws IOException {
+        if (file.length() < HEADER_SIZE) {
+            return -1;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            ByteBuffer header = readHeader(raf.getChannel());
+            return header == null ? -1 : header.getLong(8);
+        }
+    }
+
+    public synchronized int getRecordCount() {
+        long length = file.length();
+        return length <= HEADER_SIZE ? 0 : (int) ((length - HEADER_SIZE) / RECORD_SIZE);
+    }
+
+    // Starts a new generation on top of the given snapshot; the old one is kept for auditing
+    public synchronized void start(long baseSequence) throws IOException {
+        if (file.exists()) {
+            if (previousFile.exists() && !previousFile.delete()) {
+                throw new IOException("Cannot delete " + previousFile);
+            }
+            if (!file.renameTo(previousFile)) {
+                throw new IOException("Cannot rotate " + file);
+            }
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putLong(baseSequence).flip();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            FileChannel channel = out.getChannel();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(false);
+        }
+    }
+
+    public synchronized void append(long timestamp, int type, int arg) throws IOException {
+        record.clear();
+        record.putLong(timestamp).putShort((short) type).putShort((short) arg);
+        crc.reset();
+        crc.update(record.array(), 0, RECORD_DATA_SIZE);
+        record.putInt((int) crc.getValue());
+        record.flip();
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            FileChannel channel = out.getChannel();
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            channel.force(false);
+        }
+    }
+
+    // Visits every valid record in order and cuts off a torn tail so appends stay aligned
+    public synchronized int read(Visitor visitor) throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        int count = 0;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            FileChannel channel = raf.getChannel();
+            if (readHeader(channel) == null) {
+                return 0;
+            }
+            long position = HEADER_SIZE;
+            long length = channel.size();
+            while (position + RECORD_SIZE <= length) {
+                record.clear();
+                while (record.hasRemaining()) {
+                    if (channel.read(record, position + record.position()) < 0) {
+                        break;
+                    }
+                }
+                crc.reset();
+                crc.update(record.array(), 0, RECORD_DATA_SIZE);
+                if (record.getInt(RECORD_DATA_SIZE) != (int) crc.getValue()) {
+                    break;
+                }
+                visitor.onRecord(record.getLong(0), record.getShort(8), record.getShort(10));
+                position += RECORD_SIZE;
+                count++;
+            }
+            if (position < length) {
+                channel.truncate(position);
+            }
+        }
+        return count;
+    }
+
+    public synchronized int replay(Pet pet) throws IOException {
+        return read((timestamp, type, arg) -> apply(pet, timestamp, type, arg));
+    }
+
+    public synchronized void clear() {
+        file.delete();
+        previousFile.delete();
+    }
+
+    // One replay step: catch up to the event time, then apply the event
+    public static void apply(Pet pet, long timestamp, int type, int arg) {
+        if (type == EVENT_RESET) {
+            pet.reset();
+            pet.setLastUpdate(timestamp);
+            return;
+        }
+        if (type == EVENT_IDLE) {
+            pet.setLastUpdate(Math.max(pet.getLastUpdate(), timestamp));
+            return;
+        }
+        PetDecay.advance(pet, timestamp);
+        switch (type) {
+            case EVENT_FEED:
+                pet.feed();
+                break;
+            case EVENT_PLAY:
+                pet.play();
+                break;
+            case EVENT_CLEAN:
+                pet.clean();
+                break;
+            case EVENT_SLEEP:
+                pet.setSleeping(true);
+                break;
+            case EVENT_WAKE:
+                pet.setSleeping(false);
+                break;
+            case EVENT_MILESTONE:
+                pet.setMilestonesAchieved(arg);
+                break;
+            case EVENT_DEATH:
+                pet.setAlive(false);
+                break;
+            case EVENT_DEBUG_AGE:
+                pet.setAgeSeconds(pet.getAgeSeconds() + arg * PetState.SECONDS_PER_DAY);
+                pet.updateStage();
+                break;
+            default:
+                // EVENT_TICK only moves time forward
+                break;
+        }
+    }
+
+    public static int deathCause(Pet pet) {
+        int cause = 0;
+        if (pet.getHunger() <= 0) cause |= DEATH_HUNGER;
+        if (pet.getHappiness() <= 0) cause |= DEATH_HAPPINESS;
+        if (pet.getEnergy() <= 0) cause |= DEATH_ENERGY;
+        if (pet.getCleanliness() <= 0) cause |= DEATH_CLEANLINESS;
+        return cause;
+    }
+
+    private static ByteBuffer readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                return null;
+            }
+        }
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            return null;
+        }
+        return header;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.digibuddy;
+
+import android.util.Log;
+import java.util.HashMap;
+import java.util.Map;
+
+// Logging for hot paths. Messages are templates with {} placeholders that are only
+// formatted once the level check passes. The overloads take primitives and plain
+// objects instead of varargs, so a disabled call allocates nothing. Debug calls
+// compile away in release builds through BuildConfig.DEBUG, which needs the
+// buildConfig feature app/build.gradle turns on. Tags can be sampled so a 1 Hz
+// caller only logs every Nth call. Errors keep using Log.e directly.
+public final class PetLog {
+    // Below this level nothing is logged; debug builds start at DEBUG, release at INFO
+    private static volatile int minLevel = BuildConfig.DEBUG ? Log.DEBUG : Log.INFO;
+
+    // Tag -> {every, counter}; a tag logs on every "every"-th enabled call
+    private static final Map<String, int[]> sampling = new HashMap<>();
+
+    public interface Sink {
+        void println(int level, String tag, String message);
+    }
+
+    private static volatile Sink sink = Log::println;
+
+    static {
+        // Stage/mood dumps from the per-second UI path: about once a minute
+        setSampling("StageDebug", 60);
+    }
+
+    private PetLog() {
+    }
+
+    public static void setMinLevel(int level) {
+        minLevel = level;
+    }
+
+    public static synchronized void setSampling(String tag, int every) {
+        if (every <= 1) {
+            sampling.remove(tag);
+        } else {
+            sampling.put(tag, new int[]{every, 0});
+        }
+    }
+
+    static void setSink(Sink newSink) {
+        sink = newSink;
+    }
+
+    // Level gate only
+    public static boolean isEnabled(int level) {
+        if (level < Log.INFO && !BuildConfig.DEBUG) {
+            return false;
+        }
+        return level >= minLevel;
+    }
+
+    // Level gate plus the tag's sampling; guards multi-line dumps so the whole
+    // block is skipped, or logged, as one unit
+    public static boolean shouldLog(int level, String tag) {
+        return isEnabled(level) && sample(tag);
+    }
+
+    public static void d(String tag, String message) {
+        if (BuildConfig.DEBUG && shouldLog(Log.DEBUG, tag)) {
+            sink.println(Log.DEBUG, tag, message);
+        }
+    }
+
+    public static void d(String tag, String template, Object a) {
+        if (BuildConfig.DEBUG && shouldLog(Log.DEBUG, tag)) {
+            sink.println(Log.DEBUG, tag, format(template, String.valueOf(a), null));
+        }
+    }
+
+    public static void d(String tag, String template, Object a, Object b) {
+        if (BuildConfig.DEBUG && shouldLog(Log.DEBUG, tag)) {
+            sink.println(Log.DEBUG, tag, format(template, String.valueOf(a), String.valueOf(b)));
+        }
+    }
+
+    public static void d(String tag, String template, long a) {
+        if (BuildConfig.DEBUG && shouldLog(Log.DEBUG, tag)) {
+            sink.println(Log.DEBUG, tag, format(template, String.valueOf(a), null));
+        }
+    }
+
+    public static void d(String tag, String template, double a) {
+        if (BuildConfig.DEBUG && shouldLog(Log.DEBUG, tag)) {
+            sink.println(Log.DEBUG, tag, format(template, String.valueOf(a), null));
+        }
+    }
+
+    public static void d(String tag, String template, double a, double b) {
+        if (BuildConfig.DEBUG && shouldLog(Log.DEBUG, tag)) {
+            sink.println(Log.DEBUG, tag, format(template, String.valueOf(a), String.valueOf(b)));
+        }
+    }
+
+    public static void d(String tag, String template, boolean a, double b) {
+        if (BuildConfig.DEBUG && shouldLog(Log.DEBUG, tag)) {
+            sink.println(Log.DEBUG, tag, format(template, String.valueOf(a), String.valueOf(b)));
+        }
+    }
+
+    public static void i(String tag, String template, Object a) {
+        if (shouldLog(Log.INFO, tag)) {
+            sink.println(Log.INFO, tag, format(template, String.valueOf(a), null));
+        }
+    }
+
+    // Fills up to two {} placeholders; extra placeholders are left as they are
+    static String format(String template, String a, String b) {
+        StringBuilder out = new StringBuilder(template.length() + 32);
+        int start = 0;
+        for (int arg = 0; arg < 2; arg++) {
+            String value = arg == 0 ? a : b;
+            int index = template.indexOf("{}", start);
+            if (value == null || index < 0) {
+                break;
+            }
+            out.append(template, start, index).append(value);
+            start = index + 2;
+        }
+        return out.append(template, start, template.length()).toString();
+    }
+
+    private static synchronized boolean sample(String tag) {
+        if (sampling.isEmpty()) {
+            return true;
+        }
+        int[] state = sampling.get(tag);
+        if (state == null) {
+            return true;
+        }
+        boolean log = state[1] == 0;
+        state[1] = (state[1] + 1) % state[0];
+        return log;
+    }
+}
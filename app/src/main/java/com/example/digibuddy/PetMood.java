@@ -0,0 +1,39 @@
+package com.example.digibuddy;
+
+// Pet mood, derived from the current stats. Pure Java so it can be benchmarked off-device.
+public enum PetMood {
+    HAPPY, HUNGRY, TIRED, DIRTY, SLEEPING, DEFAULT;
+
+    public static PetMood of(Pet pet) {
+        if (!pet.isAlive()) {
+            return DEFAULT;
+        }
+
+        // EGG STAGE: Always show egg, no moods
+        if (pet.getLifeStage() == PetStage.EGG) {
+            return DEFAULT;
+        }
+
+        if (pet.isSleeping()) {
+            return SLEEPING;
+        }
+
+        // Check for critical needs first
+        if (pet.getHunger() < 20) {
+            return HUNGRY;
+        }
+        if (pet.getEnergy() < 20) {
+            return TIRED;
+        }
+        if (pet.getCleanliness() < 30) {
+            return DIRTY;
+        }
+
+        // Then check for happiness (only if not in critical state)
+        if (pet.getHappiness() > 70 && pet.getEnergy() > 50 && pet.getHunger() > 50) {
+            return HAPPY;
+        }
+
+        return DEFAULT;
+    }
+}
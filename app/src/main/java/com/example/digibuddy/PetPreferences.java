@@ -3,11 +3,23 @@ package com.example.digibuddy;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.util.Log;
+import java.io.File;
+import java.io.IOException;
 
 public class PetPreferences {
     private static final String PREFS_NAME = "DigiBuddyPrefs";
-    private SharedPreferences sharedPreferences;
+    private static final String SNAPSHOT_FILE = "pet.snapshot";
+    private static final String JOURNAL_FILE = "pet.journal";
+    // Fold the journal into a new snapshot once it holds this many records (64 KB)
+    private static final int COMPACT_THRESHOLD = 4096;
+    private final Context context;
+    private final PetSnapshotStore snapshotStore;
+    private final PetJournal journal;
+    // Set when the stored pet could not be read; nothing is written for the rest of
+    // the process so the A/B slots and the journal survive for the next start
+    private boolean readFailed;
 
+    // Legacy SharedPreferences keys, only read when migrating
     private static final String KEY_HUNGER = "hunger";
     private static final String KEY_HAPPINESS = "happiness";
     private static final String KEY_ENERGY = "energy";
@@ -20,34 +32,92 @@ public class PetPreferences {
     private static final String KEY_MILESTONES = "milestones";
 
     public PetPreferences(Context context) {
-        sharedPreferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.context = context;
+        snapshotStore = new PetSnapshotStore(new File(context.getFilesDir(), SNAPSHOT_FILE));
+        journal = new PetJournal(new File(context.getFilesDir(), JOURNAL_FILE));
     }
 
+    // Writes a full snapshot and starts a new journal generation on top of it
     public void savePet(Pet pet) {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putFloat(KEY_HUNGER, (float) pet.getHunger());
-        editor.putFloat(KEY_HAPPINESS, (float) pet.getHappiness());
-        editor.putFloat(KEY_ENERGY, (float) pet.getEnergy());
-        editor.putFloat(KEY_AGE, (float) pet.getAge());
-        editor.putString(KEY_STAGE, pet.getStage());
-        editor.putBoolean(KEY_SLEEPING, pet.isSleeping());
-        editor.putBoolean(KEY_ALIVE, pet.isAlive());
-        editor.putFloat(KEY_CLEANLINESS, (float) pet.getCleanliness());
-        editor.putLong(KEY_LAST_UPDATE, pet.getLastUpdate());
-        editor.putInt(KEY_MILESTONES, pet.getMilestonesAchieved());
-        editor.apply(); // Use apply() for immediate async write
+        if (readFailed) {
+            Log.e("PetPreferences", "Stored pet was unreadable, not saving over it");
+            return;
+        }
+        try {
+            snapshotStore.save(pet);
+            journal.start(snapshotStore.getSequence());
+            PetLog.d("PetPreferences", "Pet saved - Sleeping: {}, Energy: {}", pet.isSleeping(), pet.getEnergy());
+        } catch (IOException e) {
+            Log.e("PetPreferences", "Error saving pet snapshot: " + e.getMessage());
+        }
+    }
+
+    // Appends one event; pet is the state right after it, used if the journal is compacted
+    public void appendEvent(Pet pet, int type, int arg) {
+        if (readFailed) {
+            return;
+        }
+        try {
+            journal.append(pet.getLastUpdate(), type, arg);
+            if (journal.getRecordCount() >= COMPACT_THRESHOLD) {
+                savePet(pet);
+            }
+        } catch (IOException e) {
+            Log.e("PetPreferences", "Error appending pet event: " + e.getMessage());
+            savePet(pet);
+        }
+    }
 
-        Log.d("PetPreferences", "Pet saved - Sleeping: " + pet.isSleeping() + ", Energy: " + pet.getEnergy());
+    public PetJournal getJournal() {
+        return journal;
     }
 
+    // Latest snapshot with the journal replayed on top
     public Pet loadPet() {
-        // Check for fresh install
-        if (sharedPreferences.getAll().size() == 0) {
-            Pet freshPet = new Pet();
-            // Reset lastUpdate to current time for fresh installs
-            freshPet.setLastUpdate(System.currentTimeMillis());
-            Log.d("PetPreferences", "Fresh pet created");
-            return freshPet;
+        try {
+            Pet pet = snapshotStore.load();
+            if (pet != null) {
+                if (journal.getBaseSequence() == snapshotStore.getSequence()) {
+                    int replayed = journal.replay(pet);
+                    PetLog.d("PetPreferences", "Replayed {} journal records", replayed);
+                } else {
+                    // Crashed between writing a snapshot and starting its journal:
+                    // the old records are already folded into the snapshot
+                    journal.start(snapshotStore.getSequence());
+                }
+                PetLog.d("PetPreferences", "Pet loaded - Sleeping: {}, Energy: {}", pet.isSleeping(), pet.getEnergy());
+                return pet;
+            }
+            if (snapshotStore.exists()) {
+                Log.e("PetPreferences", "Both snapshot slots are corrupt");
+            }
+        } catch (IOException e) {
+            // An I/O error is not corruption: run this process on an unsaved placeholder
+            // rather than replace the real pet with a fresh one for good
+            Log.e("PetPreferences", "Error reading pet snapshot: " + e.getMessage());
+            readFailed = true;
+            return new Pet();
+        }
+
+        Pet migrated = migrateLegacyPreferences();
+        if (migrated != null) {
+            return migrated;
+        }
+
+        // Fresh install (or both slots corrupt): the first snapshot is the base every journal record applies to
+        Pet freshPet = new Pet();
+        // Reset lastUpdate to current time for fresh installs
+        freshPet.setLastUpdate(System.currentTimeMillis());
+        savePet(freshPet);
+        Log.d("PetPreferences", "Fresh pet created");
+        return freshPet;
+    }
+
+    // One-time import of the old XML-backed DigiBuddyPrefs into the snapshot store
+    private Pet migrateLegacyPreferences() {
+        SharedPreferences sharedPreferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        if (sharedPreferences.getAll().isEmpty()) {
+            return null;
         }
 
         Pet pet = new Pet();
@@ -62,24 +132,15 @@ public class PetPreferences {
         pet.setLastUpdate(sharedPreferences.getLong(KEY_LAST_UPDATE, System.currentTimeMillis()));
         pet.setMilestonesAchieved(sharedPreferences.getInt(KEY_MILESTONES, 0));
 
-        Log.d("PetPreferences", "Pet loaded - Sleeping: " + pet.isSleeping() + ", Energy: " + pet.getEnergy());
+        try {
+            snapshotStore.save(pet);
+            journal.start(snapshotStore.getSequence());
+            sharedPreferences.edit().clear().commit();
+            Log.d("PetPreferences", "Migrated pet from " + PREFS_NAME);
+        } catch (IOException e) {
+            // Keep the legacy data so the migration is retried next launch
+            Log.e("PetPreferences", "Error migrating pet: " + e.getMessage());
+        }
         return pet;
     }
-
-    public void resetPet() {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.clear();
-        editor.apply();
-        Log.d("PetPreferences", "Pet data reset");
-    }
-
-    // NEW: Immediate sleep state save for notification synchronization
-    public void saveSleepStateImmediately(boolean isSleeping) {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putBoolean(KEY_SLEEPING, isSleeping);
-        editor.putLong(KEY_LAST_UPDATE, System.currentTimeMillis());
-        editor.apply(); // Immediate async save
-
-        Log.d("PetPreferences", "Sleep state immediately saved: " + isSleeping);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,294 @@
+package com.example.digibuddy;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.util.Log;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Process-wide owner of the pet. MainActivity and PetService share the one pet
+// held here instead of each loading their own copy, so neither can overwrite the
+// other's changes and nobody re-reads storage to learn about them.
+//
+// The pet is an immutable PetSnapshot in an AtomicReference. Ticks and care
+// actions are compare-and-set transitions run on the caller's thread: a transition
+// that loses a race is re-applied to the snapshot that won, so a feed landing
+// during a tick is never lost and readers never see half an update or take a lock.
+// Everything with side effects - persistence via BufferedPetPreferences, the
+// history, building the PetUiModel - runs afterwards on the "PetSimulation"
+// HandlerThread from the latest snapshot, which is then handed to each listener on
+// the Handler it registered with.
+//
+// Reading storage (the snapshot slots plus a journal replay of up to 4096 records)
+// is the first job posted to that thread, so getInstance returns at once with a
+// placeholder pet and listeners get EVENT_LOADED when the stored one is in place.
+// A change asked for before then is posted behind the load instead of applied to
+// the placeholder; on the simulation thread itself the load runs inline first.
+// What stays on the main thread: each button press runs its compare-and-set
+// transition there, a closed-form catch-up and an action on a 24-byte snapshot,
+// plus binding the views.
+public class PetRepository {
+    public interface Listener {
+        // event is a PetJournal.EVENT_* type or EVENT_LOADED; arg is the milestones
+        // achieved for EVENT_MILESTONE and the death cause for EVENT_DEATH
+        void onPetChanged(PetSnapshot pet, int event, int arg);
+    }
+
+    // The stored pet replaced the placeholder; never journaled
+    public static final int EVENT_LOADED = 0;
+
+    // Pure, since it may run more than once under contention
+    private interface Transition {
+        PetSnapshot apply(PetSnapshot pet);
+    }
+
+    private static final class Registration {
+        final Listener listener;
+        final Handler handler;
+
+        Registration(Listener listener, Handler handler) {
+            this.listener = listener;
+            this.handler = handler;
+        }
+    }
+
+    private static PetRepository instance;
+
+    private final BufferedPetPreferences petPreferences;
+    private final Handler handler;
+    private final CopyOnWriteArrayList<Registration> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicReference<PetSnapshot> state;
+    // Set once the stored pet is in state; until then state holds a placeholder
+    private volatile boolean loaded;
+    // In memory only; starts empty each process and fills from the ticks
+    private final StatHistory history = new StatHistory();
+    // Newest snapshot version stored so far; simulation thread only
+    private long storedVersion = -1;
+
+    public static synchronized PetRepository getInstance(Context context) {
+        if (instance == null) {
+            HandlerThread thread = new HandlerThread("PetSimulation");
+            thread.start();
+            Looper looper = thread.getLooper();
+            instance = new PetRepository(BufferedPetPreferences.getInstance(context, looper), new Handler(looper));
+        }
+        return instance;
+    }
+
+    PetRepository(BufferedPetPreferences petPreferences, Handler handler) {
+        this.petPreferences = petPreferences;
+        this.handler = handler;
+        this.state = new AtomicReference<>(PetSnapshot.of(new Pet()));
+        // First in the simulation thread's queue, so anything posted later sees the stored pet
+        handler.post(this::load);
+    }
+
+    // Simulation thread. Replaces the placeholder with the stored pet, once
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        PetSnapshot pet = PetSnapshot.of(petPreferences.loadPet());
+        state.set(pet);
+        loaded = true;
+        PetLog.d("PetRepository", "Pet loaded once for the process - Age: {}", pet.getAge());
+        pet.uiModel();
+        notifyListeners(pet, EVENT_LOADED, 0);
+    }
+
+    // Until this is true getPet() returns a placeholder, not the stored pet
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public PetSnapshot getPet() {
+        return state.get();
+    }
+
+    public StatHistory getHistory() {
+        return history;
+    }
+
+    // The simulation thread's Handler, for work that should run next to the pet
+    public Handler getHandler() {
+        return handler;
+    }
+
+    // listener is called on handler's thread
+    public void addListener(Listener listener, Handler handler) {
+        removeListener(listener);
+        listeners.add(new Registration(listener, handler));
+    }
+
+    public void removeListener(Listener listener) {
+        for (Registration registration : listeners) {
+            if (registration.listener == listener) {
+                listeners.remove(registration);
+            }
+        }
+    }
+
+    // Each change returns the snapshot it produced (or the current one if it was a
+    // no-op); listeners hear about it shortly after, on their own threads
+
+    // Live tick: decays the pet up to now
+    public PetSnapshot advance(long now) {
+        return transition(PetJournal.EVENT_TICK, 0, pet -> pet.advance(now), null);
+    }
+
+    // Offline catch-up after the pet was away (see PetDecay.catchUp). Journaled as
+    // EVENT_IDLE when a fresh pet only had its wait skipped, so replay skips it too.
+    public PetSnapshot catchUp(long now) {
+        return transition(PetJournal.EVENT_IDLE, 0, pet -> pet.catchUp(now), null);
+    }
+
+    public PetSnapshot feed() {
+        return transition(PetJournal.EVENT_FEED, 0, live(), PetSnapshot::feed);
+    }
+
+    public PetSnapshot play() {
+        return transition(PetJournal.EVENT_PLAY, 0, live(), PetSnapshot::play);
+    }
+
+    public PetSnapshot clean() {
+        return transition(PetJournal.EVENT_CLEAN, 0, live(), PetSnapshot::clean);
+    }
+
+    public PetSnapshot setSleeping(boolean sleeping) {
+        return transition(sleeping ? PetJournal.EVENT_SLEEP : PetJournal.EVENT_WAKE, 0, live(),
+                pet -> pet.withSleeping(sleeping));
+    }
+
+    // Debug only: jumps the pet forward by whole days
+    public PetSnapshot addAge(int days) {
+        return transition(PetJournal.EVENT_DEBUG_AGE, days, live(), pet -> pet.withAgeAdded(days));
+    }
+
+    // Starts a new pet; the reset is journaled so the old pet's history survives
+    public PetSnapshot reset() {
+        Pet fresh = new Pet();
+        return transition(PetJournal.EVENT_RESET, 0, live(), pet -> pet.reset(fresh));
+    }
+
+    public void flush() {
+        execute(petPreferences::flush);
+    }
+
+    private void execute(Runnable action) {
+        if (Looper.myLooper() == handler.getLooper()) {
+            action.run();
+        } else {
+            handler.post(action);
+        }
+    }
+
+    // Actions land on a pet the live tick has brought up to the current time
+    private static Transition live() {
+        long now = System.currentTimeMillis();
+        return pet -> pet.advance(now);
+    }
+
+    // Brings the pet up to now with catchUp, then applies action (if any) to the
+    // caught-up pet. Lost races retry from the snapshot that won, so nothing is
+    // overwritten.
+    private PetSnapshot transition(int event, int arg, Transition catchUp, Transition action) {
+        if (!loaded) {
+            if (Looper.myLooper() != handler.getLooper()) {
+                // Queued behind load(); the placeholder is all there is to return yet
+                int queuedEvent = event;
+                int queuedArg = arg;
+                handler.post(() -> transition(queuedEvent, queuedArg, catchUp, action));
+                return state.get();
+            }
+            load();
+        }
+        PetSnapshot prev;
+        PetSnapshot caughtUp;
+        PetSnapshot next;
+        do {
+            prev = state.get();
+            caughtUp = catchUp.apply(prev);
+            next = action == null ? caughtUp : action.apply(caughtUp);
+            if (next == prev) {
+                return prev;
+            }
+        } while (!state.compareAndSet(prev, next));
+
+        // Report what actually happened: an action the pet could not take (dead,
+        // asleep, too tired) is only the catch-up tick, a catch-up that decayed the
+        // pet is a tick too, and dying during either is a death
+        if (next == caughtUp) {
+            boolean idle = event == PetJournal.EVENT_IDLE && next.isFresh();
+            event = idle ? PetJournal.EVENT_IDLE : PetJournal.EVENT_TICK;
+            arg = 0;
+        }
+        if (prev.isAlive() && !next.isAlive()) {
+            event = PetJournal.EVENT_DEATH;
+            arg = PetJournal.deathCause(next.toPet());
+        }
+        int milestones = event != PetJournal.EVENT_RESET
+                && next.getMilestonesAchieved() > prev.getMilestonesAchieved() ? next.getMilestonesAchieved() : 0;
+        PetSnapshot changed = next;
+        int changeEvent = event;
+        int changeArg = arg;
+        execute(() -> {
+            afterChange(changed, changeEvent, changeArg);
+            if (milestones > 0) {
+                afterChange(changed, PetJournal.EVENT_MILESTONE, milestones);
+            }
+        });
+        return next;
+    }
+
+    // Simulation thread. Stores, records and announces the snapshot this transition
+    // produced, so the journal entry and history sample for an event carry the state
+    // right after it. Changes made on other threads can be queued here out of order;
+    // an older one is still journaled, then the newest state is saved over it.
+    private void afterChange(PetSnapshot pet, int event, int arg) {
+        Pet copy = pet.toPet();
+        // savePet journals a death itself, with its cause
+        if (event == PetJournal.EVENT_TICK || event == PetJournal.EVENT_DEATH) {
+            petPreferences.savePet(copy);
+        } else {
+            petPreferences.recordEvent(copy, event, arg);
+        }
+        if (pet.getVersion() < storedVersion) {
+            petPreferences.savePet(state.get().toPet());
+        } else {
+            storedVersion = pet.getVersion();
+        }
+        if (event == PetJournal.EVENT_RESET) {
+            history.clear();
+        }
+        // StatHistory drops a sample older than the last one, so a late change adds nothing twice
+        history.record(pet.getLastUpdate(), copy);
+        // Built here so listeners on the main thread get it for free
+        pet.uiModel();
+        notifyListeners(pet, event, arg);
+    }
+
+    private void notifyListeners(PetSnapshot pet, int event, int arg) {
+        for (Registration registration : listeners) {
+            if (registration.handler.getLooper() == Looper.myLooper()) {
+                deliver(registration, pet, event, arg);
+            } else {
+                registration.handler.post(() -> {
+                    // Skip listeners that unregistered while this was queued
+                    if (listeners.contains(registration)) {
+                        deliver(registration, pet, event, arg);
+                    }
+                });
+            }
+        }
+    }
+
+    private static void deliver(Registration registration, PetSnapshot pet, int event, int arg) {
+        try {
+            registration.listener.onPetChanged(pet, event, arg);
+        } catch (Exception e) {
+            Log.e("PetRepository", "Listener failed for event " + event + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.digibuddy;
+
+import java.util.Arrays;
+
+// Struct-of-arrays store for many pets. Each stat lives in its own primitive array
+// indexed by pet id, so a roster costs 33 bytes per pet (four int stats in PetState
+// units, int age in seconds, a long, an int and a flag byte) and tickAll() runs as
+// straight integer loops over contiguous arrays. view(id) exposes a single pet
+// through the existing Pet API.
+public class PetRoster {
+    static final int FLAG_SLEEPING = 1;
+    static final int FLAG_ALIVE = 1 << 1;
+    static final int STAGE_SHIFT = 2;
+    static final int STAGE_MASK = 3 << STAGE_SHIFT;
+    // Age in seconds at which each stage after EGG begins, in order
+    private static final int[] STAGE_STARTS = stageStarts();
+
+    private int size;
+    private int[] hunger;
+    private int[] happiness;
+    private int[] energy;
+    private int[] cleanliness;
+    private int[] ageSeconds;
+    private long[] lastUpdate;
+    private int[] milestones;
+    private byte[] flags;
+
+    // Scratch for tickAll(): seconds each pet is simulated this tick
+    private int[] seconds;
+
+    public PetRoster(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        hunger = new int[capacity];
+        happiness = new int[capacity];
+        energy = new int[capacity];
+        cleanliness = new int[capacity];
+        ageSeconds = new int[capacity];
+        lastUpdate = new long[capacity];
+        milestones = new int[capacity];
+        flags = new byte[capacity];
+        seconds = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Adds a copy of the pet and returns its id
+    public int add(Pet pet) {
+        if (size == hunger.length) {
+            grow(size * 2);
+        }
+        int id = size++;
+        view(id).copyFrom(pet);
+        return id;
+    }
+
+    public void get(int id, Pet out) {
+        out.copyFrom(view(id));
+    }
+
+    public void set(int id, Pet pet) {
+        view(id).copyFrom(pet);
+    }
+
+    public boolean isAlive(int id) {
+        return (flags[id] & FLAG_ALIVE) != 0;
+    }
+
+    public int countAlive() {
+        int alive = 0;
+        for (int i = 0; i < size; i++) {
+            alive += (flags[i] >>> 1) & 1;
+        }
+        return alive;
+    }
+
+    // Advances every pet to now with the same rules as PetDecay.advance
+    public void tickAll(long now) {
+        final int n = size;
+        final int[] seconds = this.seconds;
+
+        // Pass 1: whole seconds to simulate per pet, stopped at death; zero for dead pets
+        for (int i = 0; i < n; i++) {
+            seconds[i] = simulatedSeconds(i, now);
+        }
+
+        // Pass 2: one branch-free loop per stat
+        final int hungerAwake = PetDecay.hungerUnitsPerSecond(false);
+        final int hungerSleep = PetDecay.hungerUnitsPerSecond(true) - hungerAwake;
+        for (int i = 0; i < n; i++) {
+            int rate = hungerAwake + hungerSleep * (flags[i] & FLAG_SLEEPING);
+            hunger[i] = PetState.clampUnits(hunger[i] - (long) rate * seconds[i]);
+        }
+        final int happinessAwake = PetDecay.happinessUnitsPerSecond(false);
+        final int happinessSleep = PetDecay.happinessUnitsPerSecond(true) - happinessAwake;
+        for (int i = 0; i < n; i++) {
+            int rate = happinessAwake + happinessSleep * (flags[i] & FLAG_SLEEPING);
+            happiness[i] = PetState.clampUnits(happiness[i] - (long) rate * seconds[i]);
+        }
+        final int energyAwake = PetDecay.energyUnitsPerSecond(false);
+        final int energySleep = PetDecay.energyUnitsPerSecond(true) - energyAwake;
+        for (int i = 0; i < n; i++) {
+            int rate = energyAwake + energySleep * (flags[i] & FLAG_SLEEPING);
+            energy[i] = PetState.clampUnits(energy[i] - (long) rate * seconds[i]);
+        }
+        final int cleanlinessAwake = PetDecay.cleanlinessUnitsPerSecond(false);
+        final int cleanlinessSleep = PetDecay.cleanlinessUnitsPerSecond(true) - cleanlinessAwake;
+        for (int i = 0; i < n; i++) {
+            int rate = cleanlinessAwake + cleanlinessSleep * (flags[i] & FLAG_SLEEPING);
+            cleanliness[i] = PetState.clampUnits(cleanliness[i] - (long) rate * seconds[i]);
+        }
+        for (int i = 0; i < n; i++) {
+            ageSeconds[i] += seconds[i];
+        }
+
+        // Pass 3: stage and death flags
+        for (int i = 0; i < n; i++) {
+            int age = ageSeconds[i];
+            int stage = 0;
+            for (int start : STAGE_STARTS) {
+                stage += age >= start ? 1 : 0;
+            }
+            int f = (flags[i] & ~STAGE_MASK) | (stage << STAGE_SHIFT);
+            if (hunger[i] <= 0 || happiness[i] <= 0 || energy[i] <= 0 || cleanliness[i] <= 0) {
+                f &= ~FLAG_ALIVE;
+            }
+            flags[i] = (byte) f;
+        }
+    }
+
+    private static int[] stageStarts() {
+        PetStage[] stages = PetStage.values();
+        int[] starts = new int[stages.length - 1];
+        for (int i = 1; i < stages.length; i++) {
+            starts[i - 1] = (int) stages[i].fromSeconds();
+        }
+        return starts;
+    }
+
+    // Also moves lastUpdate on, keeping the sub-second remainder like PetDecay.advance
+    private int simulatedSeconds(int i, long now) {
+        long elapsed = now - lastUpdate[i];
+        if (elapsed <= 0 || (flags[i] & FLAG_ALIVE) == 0) {
+            lastUpdate[i] = Math.max(now, lastUpdate[i]);
+            return 0;
+        }
+        long whole = elapsed / 1000;
+        if (whole == 0) {
+            return 0;
+        }
+        boolean sleeping = (flags[i] & FLAG_SLEEPING) != 0;
+        long death = untilZero(hunger[i], PetDecay.hungerUnitsPerSecond(sleeping));
+        death = Math.min(death, untilZero(happiness[i], PetDecay.happinessUnitsPerSecond(sleeping)));
+        death = Math.min(death, untilZero(energy[i], PetDecay.energyUnitsPerSecond(sleeping)));
+        death = Math.min(death, untilZero(cleanliness[i], PetDecay.cleanlinessUnitsPerSecond(sleeping)));
+        if (death <= whole) {
+            lastUpdate[i] = now;
+            return (int) death;
+        }
+        lastUpdate[i] += whole * 1000;
+        return (int) whole;
+    }
+
+    private static long untilZero(int units, int unitsPerSecond) {
+        return unitsPerSecond <= 0 ? Long.MAX_VALUE : (units + unitsPerSecond - 1) / unitsPerSecond;
+    }
+
+    private void grow(int capacity) {
+        hunger = Arrays.copyOf(hunger, capacity);
+        happiness = Arrays.copyOf(happiness, capacity);
+        energy = Arrays.copyOf(energy, capacity);
+        cleanliness = Arrays.copyOf(cleanliness, capacity);
+        ageSeconds = Arrays.copyOf(ageSeconds, capacity);
+        lastUpdate = Arrays.copyOf(lastUpdate, capacity);
+        milestones = Arrays.copyOf(milestones, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        seconds = new int[capacity];
+    }
+
+    // A Pet whose state lives in the roster arrays
+    public Pet view(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("No pet with id " + id);
+        }
+        return new View(id);
+    }
+
+    private final class View extends Pet {
+        private final int id;
+
+        View(int id) {
+            this.id = id;
+        }
+
+        @Override public int getHungerUnits() { return hunger[id]; }
+        @Override public void setHungerUnits(int units) { hunger[id] = PetState.clampUnits(units); }
+
+        @Override public int getHappinessUnits() { return happiness[id]; }
+        @Override public void setHappinessUnits(int units) { happiness[id] = PetState.clampUnits(units); }
+
+        @Override public int getEnergyUnits() { return energy[id]; }
+        @Override public void setEnergyUnits(int units) { energy[id] = PetState.clampUnits(units); }
+
+        @Override public int getCleanlinessUnits() { return cleanliness[id]; }
+        @Override public void setCleanlinessUnits(int units) { cleanliness[id] = PetState.clampUnits(units); }
+
+        @Override public long getAgeSeconds() { return ageSeconds[id]; }
+        @Override public void setAgeSeconds(long seconds) { ageSeconds[id] = (int) Math.min(Integer.MAX_VALUE, seconds); }
+
+        @Override public PetStage getLifeStage() { return PetStage.fromCode((flags[id] & STAGE_MASK) >>> STAGE_SHIFT); }
+        @Override public void setLifeStage(PetStage stage) {
+            flags[id] = (byte) ((flags[id] & ~STAGE_MASK) | (stage.ordinal() << STAGE_SHIFT));
+        }
+
+        @Override public boolean isSleeping() { return (flags[id] & FLAG_SLEEPING) != 0; }
+        @Override public void setSleeping(boolean sleeping) { setFlag(FLAG_SLEEPING, sleeping); }
+
+        @Override public boolean isAlive() { return (flags[id] & FLAG_ALIVE) != 0; }
+        @Override public void setAlive(boolean alive) { setFlag(FLAG_ALIVE, alive); }
+
+        @Override public long getLastUpdate() { return lastUpdate[id]; }
+        @Override public void setLastUpdate(long value) { lastUpdate[id] = value; }
+
+        @Override public int getMilestonesAchieved() { return milestones[id]; }
+        @Override public void setMilestonesAchieved(int value) { milestones[id] = value; }
+
+        private void setFlag(int flag, boolean on) {
+            flags[id] = (byte) (on ? flags[id] | flag : flags[id] & ~flag);
+        }
+    }
+}
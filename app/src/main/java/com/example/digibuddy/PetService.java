@@ -12,97 +12,46 @@ import android.os.Build;
 import android.util.Log;
 import androidx.annotation.Nullable;
 import androidx.core.app.NotificationCompat;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 public class PetService extends Service {
-    private static final long UPDATE_INTERVAL = 60000;
+    // Upper bound between wakeups, as a safety net for wall-clock changes
+    private static final long MAX_UPDATE_INTERVAL = 3 * 60 * 60 * 1000;
+    private static final long MIN_UPDATE_INTERVAL = 1000;
+
     private static final int NOTIFICATION_ID = 1;
     private static final String CHANNEL_ID = "pet_service_channel";
     private static final String ALERT_CHANNEL_ID = "pet_alert_channel";
 
-    // NEW: Constants for notification IDs
-    private static final int ENERGY_WARNING_ID = 1001;
-    private static final int ENERGY_EMERGENCY_ID = 1002;
-    private static final int HUNGER_WARNING_ID = 2001;
-    private static final int HUNGER_EMERGENCY_ID = 2002;
-    private static final int HAPPINESS_WARNING_ID = 3001;
-    private static final int HAPPINESS_EMERGENCY_ID = 3002;
-    private static final int CLEANLINESS_WARNING_ID = 4001;
-    private static final int CLEANLINESS_EMERGENCY_ID = 4002;
-    private static final int MILESTONE_ID = 5000;
-
     private Handler handler;
     private Runnable updateRunnable;
-    private PetPreferences petPreferences;
+    private PetRepository repository;
+    private final PetRepository.Listener petListener = (pet, event, arg) -> onPetChanged(event, arg);
     private NotificationManager notificationManager;
 
-    // NEW: Thread-safe alert tracking with atomic operations
-    private Map<String, AtomicBoolean> alertSentMap;
-    private Map<String, Long> lastAlertTimeMap;
-
-    // NEW: Sleep state synchronization
-    private final AtomicBoolean isProcessingSleep = new AtomicBoolean(false);
+    // Low stat alert rules and their per-rule state
+    private final AlertRuleEngine alertRules = new AlertRuleEngine();
+    private AlertDispatcher alertDispatcher;
 
     @Override
     public void onCreate() {
         super.onCreate();
-        handler = new Handler();
-        petPreferences = new PetPreferences(this);
+        repository = PetRepository.getInstance(this);
+        // Updates, alert rules and notification calls run on the simulation thread,
+        // next to the pet, instead of on the main thread
+        handler = repository.getHandler();
         notificationManager = getSystemService(NotificationManager.class);
         createNotificationChannels();
-        initializeAlertTracking();
+        alertDispatcher = new AlertDispatcher(this, notificationManager, ALERT_CHANNEL_ID,
+                System.currentTimeMillis());
+        repository.addListener(petListener, handler);
 
         Log.d("PetService", "Service created with enhanced notification control");
     }
 
-    // NEW: Completely redesigned alert tracking
-    private void initializeAlertTracking() {
-        alertSentMap = new HashMap<>();
-        lastAlertTimeMap = new HashMap<>();
-
-        // Warning alerts (25% threshold)
-        alertSentMap.put("hunger_warning", new AtomicBoolean(false));
-        alertSentMap.put("happiness_warning", new AtomicBoolean(false));
-        alertSentMap.put("energy_warning", new AtomicBoolean(false));
-        alertSentMap.put("cleanliness_warning", new AtomicBoolean(false));
-
-        // Emergency alerts (15% threshold)
-        alertSentMap.put("hunger_emergency", new AtomicBoolean(false));
-        alertSentMap.put("happiness_emergency", new AtomicBoolean(false));
-        alertSentMap.put("energy_emergency", new AtomicBoolean(false));
-        alertSentMap.put("cleanliness_emergency", new AtomicBoolean(false));
-
-        long currentTime = System.currentTimeMillis();
-        lastAlertTimeMap.put("hunger_warning", currentTime);
-        lastAlertTimeMap.put("happiness_warning", currentTime);
-        lastAlertTimeMap.put("energy_warning", currentTime);
-        lastAlertTimeMap.put("cleanliness_warning", currentTime);
-        lastAlertTimeMap.put("hunger_emergency", currentTime);
-        lastAlertTimeMap.put("happiness_emergency", currentTime);
-        lastAlertTimeMap.put("energy_emergency", currentTime);
-        lastAlertTimeMap.put("cleanliness_emergency", currentTime);
-    }
-
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
         Log.d("PetService", "Service starting with enhanced notification control");
 
-        // NEW: Handle immediate actions from MainActivity
-        if (intent != null) {
-            String action = intent.getAction();
-            if ("CLEANUP_ENERGY_NOTIFICATIONS".equals(action)) {
-                Log.d("PetService", "Immediate energy notification cleanup requested");
-                cleanupEnergyNotificationsImmediately();
-                return START_STICKY;
-            } else if ("FORCE_SLEEP_SYNC".equals(action)) {
-                Log.d("PetService", "Force sleep synchronization requested");
-                forceSleepStateSync();
-                return START_STICKY;
-            }
-        }
-
         startForegroundService();
         startPetUpdates();
         return START_STICKY;
@@ -153,307 +102,98 @@ public class PetService extends Service {
     }
 
     private void startPetUpdates() {
-        updateRunnable = new Runnable() {
-            @Override
-            public void run() {
-                updatePetStats();
-                checkLowStatsAndNotify();
-                handler.postDelayed(this, UPDATE_INTERVAL);
-            }
-        };
-        handler.postDelayed(updateRunnable, UPDATE_INTERVAL);
-    }
-
-    private void updatePetStats() {
-        Pet pet = petPreferences.loadPet();
-
-        if (!pet.isAlive()) {
-            Log.d("PetService", "Pet is not alive, stopping service");
-            stopSelf();
-            return;
-        }
-
-        boolean isFreshPet = pet.getHunger() == 100 &&
-                pet.getHappiness() == 100 &&
-                pet.getEnergy() == 100 &&
-                pet.getAge() == 0 &&
-                pet.getCleanliness() == 100;
-
-        if (!isFreshPet) {
-            long timePassed = System.currentTimeMillis() - pet.getLastUpdate();
-            long minutesPassed = timePassed / (1000 * 60);
-
-            if (minutesPassed > 0) {
-                // BALANCED RATES (per minute)
-                double hungerLoss = minutesPassed * 0.08;
-                double happinessLoss = minutesPassed * 0.04;
-                double energyLoss = minutesPassed * 0.04;
-                double cleanlinessLoss = minutesPassed * 0.016;
-
-                double daysPassed = minutesPassed / 1440.0;
-                double previousAge = pet.getAge();
-
-                pet.setAge(pet.getAge() + daysPassed);
-
-                if (pet.isSleeping()) {
-                    double energyGain = minutesPassed * 0.24;
-                    pet.setEnergy(Math.min(100, pet.getEnergy() + energyGain));
-                    hungerLoss *= 0.3;
-                    happinessLoss *= 0.4;
-                    cleanlinessLoss *= 0.5;
-                    energyLoss = 0;
+        if (updateRunnable == null) {
+            updateRunnable = new Runnable() {
+                @Override
+                public void run() {
+                    Pet pet = updatePetStats();
+                    if (pet == null) {
+                        return;
+                    }
+                    checkLowStatsAndNotify(pet);
+                    scheduleNextUpdate(pet);
                 }
-
-                pet.setHunger(Math.max(0, pet.getHunger() - hungerLoss));
-                pet.setHappiness(Math.max(0, pet.getHappiness() - happinessLoss));
-                pet.setEnergy(Math.max(0, pet.getEnergy() - energyLoss));
-                pet.setCleanliness(Math.max(0, pet.getCleanliness() - cleanlinessLoss));
-
-                pet.updateStage();
-                pet.checkDeath();
-
-                pet.setLastUpdate(System.currentTimeMillis());
-                petPreferences.savePet(pet);
-
-                checkMilestonesInBackground(previousAge, pet.getAge());
-            }
+            };
         }
+        // Repeated start commands must not stack up parallel update loops
+        handler.removeCallbacks(updateRunnable);
+        handler.post(updateRunnable);
     }
 
-    // NEW: Completely redesigned notification system
-    private void checkLowStatsAndNotify() {
-        if (isProcessingSleep.get()) {
-            Log.d("PetService", "Sleep processing in progress, skipping notification check");
+    // Changes made anywhere in the process, pushed by the repository
+    private void onPetChanged(int event, int arg) {
+        if (event == PetJournal.EVENT_MILESTONE) {
+            alertDispatcher.sendMilestone(arg * Pet.MILESTONE_DAYS, System.currentTimeMillis());
             return;
         }
-
-        Pet pet = petPreferences.loadPet();
-
-        if (!pet.isAlive()) {
-            resetAllAlerts();
+        if (event == PetJournal.EVENT_TICK || event == PetJournal.EVENT_IDLE
+                || event == PetRepository.EVENT_LOADED || updateRunnable == null) {
+            // Plain decay (or a skipped wait) is already covered by the wakeup schedule,
+            // and the update loads the pet itself before it reads it
             return;
         }
-
-        // NEW: Immediate sleep state handling - CRITICAL
-        if (pet.isSleeping()) {
-            handleSleepStateImmediately();
-            return; // Skip ALL notification checks when sleeping
-        }
-
-        long currentTime = System.currentTimeMillis();
-        long fiveMinutes = 5 * 60 * 1000;
-
-        // WARNING ALERTS - 25% threshold
-        checkAndSendWarningAlert(pet, "hunger", pet.getHunger(), 25, 15,
-                "Hunger Warning", "Your DigiBuddy is getting hungry! Consider feeding soon.",
-                HUNGER_WARNING_ID, currentTime, fiveMinutes);
-
-        checkAndSendWarningAlert(pet, "happiness", pet.getHappiness(), 25, 15,
-                "Happiness Warning", "Your DigiBuddy is feeling sad! Some playtime would help!",
-                HAPPINESS_WARNING_ID, currentTime, fiveMinutes);
-
-        checkAndSendWarningAlert(pet, "energy", pet.getEnergy(), 25, 15,
-                "Energy Warning", "Your DigiBuddy is getting tired! Maybe some rest soon?",
-                ENERGY_WARNING_ID, currentTime, fiveMinutes);
-
-        checkAndSendWarningAlert(pet, "cleanliness", pet.getCleanliness(), 25, 15,
-                "Cleanliness Warning", "Your DigiBuddy is getting dirty! A cleaning would be nice!",
-                CLEANLINESS_WARNING_ID, currentTime, fiveMinutes);
-
-        // EMERGENCY ALERTS - 15% threshold
-        checkAndSendEmergencyAlert(pet, "hunger", pet.getHunger(), 15, 0,
-                "🍕 HUNGER EMERGENCY!", "Your DigiBuddy is very hungry! Feed it immediately!",
-                HUNGER_EMERGENCY_ID, currentTime, fiveMinutes);
-
-        checkAndSendEmergencyAlert(pet, "happiness", pet.getHappiness(), 15, 0,
-                "😢 HAPPINESS EMERGENCY!", "Your DigiBuddy is very sad! Play with it urgently!",
-                HAPPINESS_EMERGENCY_ID, currentTime, fiveMinutes);
-
-        checkAndSendEmergencyAlert(pet, "energy", pet.getEnergy(), 15, 0,
-                "😴 ENERGY EMERGENCY!", "Your DigiBuddy is exhausted! Let it sleep immediately!",
-                ENERGY_EMERGENCY_ID, currentTime, fiveMinutes);
-
-        checkAndSendEmergencyAlert(pet, "cleanliness", pet.getCleanliness(), 15, 0,
-                "🛁 CLEANLINESS EMERGENCY!", "Your DigiBuddy is very dirty! Clean it right away!",
-                CLEANLINESS_EMERGENCY_ID, currentTime, fiveMinutes);
+        // The user acted or the pet died: re-evaluate now and re-plan the next wakeup
+        PetLog.d("PetService", "Pet state changed (event {}), rescheduling alerts", event);
+        handler.removeCallbacks(updateRunnable);
+        handler.post(updateRunnable);
     }
 
-    // NEW: Modular alert checking methods
-    private void checkAndSendWarningAlert(Pet pet, String type, double value, int upperThreshold, int lowerThreshold,
-                                          String title, String message, int notificationId,
-                                          long currentTime, long cooldown) {
-        String alertKey = type + "_warning";
-
-        if (value <= upperThreshold && value > lowerThreshold) {
-            if (!alertSentMap.get(alertKey).get() ||
-                    (currentTime - lastAlertTimeMap.get(alertKey) > cooldown)) {
-                sendAlertNotification(title, message, notificationId);
-                alertSentMap.get(alertKey).set(true);
-                lastAlertTimeMap.put(alertKey, currentTime);
-                Log.d("PetService", "Sent " + alertKey + " notification");
-            }
-        } else {
-            // Reset alert state and cancel notification when condition no longer met
-            if (alertSentMap.get(alertKey).get()) {
-                alertSentMap.get(alertKey).set(false);
-                notificationManager.cancel(notificationId);
-                Log.d("PetService", "Cancelled " + alertKey + " notification - condition no longer met");
-            }
-        }
+    // Sleeps until the next moment something observable can change instead of polling
+    private void scheduleNextUpdate(Pet pet) {
+        long delay = computeNextUpdateDelay(pet, System.currentTimeMillis());
+        handler.removeCallbacks(updateRunnable);
+        handler.postDelayed(updateRunnable, delay);
+        PetLog.d("PetService", "Next pet update in {}s", delay / 1000);
     }
 
-    private void checkAndSendEmergencyAlert(Pet pet, String type, double value, int upperThreshold, int lowerThreshold,
-                                            String title, String message, int notificationId,
-                                            long currentTime, long cooldown) {
-        String alertKey = type + "_emergency";
-
-        if (value <= upperThreshold && value > lowerThreshold) {
-            if (!alertSentMap.get(alertKey).get() ||
-                    (currentTime - lastAlertTimeMap.get(alertKey) > cooldown)) {
-                sendAlertNotification(title, message, notificationId);
-                alertSentMap.get(alertKey).set(true);
-                lastAlertTimeMap.put(alertKey, currentTime);
-                Log.d("PetService", "Sent " + alertKey + " notification");
-            }
-        } else {
-            // Reset alert state and cancel notification when condition no longer met
-            if (alertSentMap.get(alertKey).get()) {
-                alertSentMap.get(alertKey).set(false);
-                notificationManager.cancel(notificationId);
-                Log.d("PetService", "Cancelled " + alertKey + " notification - condition no longer met");
-            }
-        }
-    }
-
-    // NEW: Immediate sleep state handling - ATOMIC OPERATION
-    private void handleSleepStateImmediately() {
-        if (isProcessingSleep.compareAndSet(false, true)) {
-            try {
-                Log.d("PetService", "Executing immediate sleep state handling");
-
-                // Cancel ALL energy notifications
-                cancelAllEnergyNotificationsImmediately();
-
-                // Reset energy alert states
-                alertSentMap.get("energy_warning").set(false);
-                alertSentMap.get("energy_emergency").set(false);
-
-                // Update last alert times to prevent immediate re-triggering
-                long currentTime = System.currentTimeMillis();
-                lastAlertTimeMap.put("energy_warning", currentTime);
-                lastAlertTimeMap.put("energy_emergency", currentTime);
-
-                Log.d("PetService", "Sleep state handling completed - energy notifications cleared");
-            } finally {
-                isProcessingSleep.set(false);
-            }
-        }
-    }
-
-    // NEW: Force sleep state synchronization
-    private void forceSleepStateSync() {
-        Pet pet = petPreferences.loadPet();
-        if (pet.isSleeping()) {
-            handleSleepStateImmediately();
-        }
-    }
-
-    // NEW: Comprehensive energy notification cleanup
-    private void cleanupEnergyNotificationsImmediately() {
-        Log.d("PetService", "Executing comprehensive energy notification cleanup");
-
-        // Cancel all energy notifications
-        cancelAllEnergyNotificationsImmediately();
-
-        // Reset all energy alert states
-        alertSentMap.get("energy_warning").set(false);
-        alertSentMap.get("energy_emergency").set(false);
+    private long computeNextUpdateDelay(Pet pet, long currentTime) {
+        // Band crossings and alerts coming off cooldown; while the pet sleeps nothing
+        // is re-sent and the wake event reschedules
+        long next = alertRules.nextChangeAt(pet);
 
-        // Update timestamps
-        long currentTime = System.currentTimeMillis();
-        lastAlertTimeMap.put("energy_warning", currentTime);
-        lastAlertTimeMap.put("energy_emergency", currentTime);
+        // Age grows in the same whole seconds from lastUpdate as the stats decay
+        long milestone = Pet.MILESTONE_DAYS * PetState.SECONDS_PER_DAY;
+        next = Math.min(next, pet.getLastUpdate() + (milestone - pet.getAgeSeconds() % milestone) * 1000);
 
-        Log.d("PetService", "Energy notification cleanup completed");
+        long delay = Math.min(MAX_UPDATE_INTERVAL, next - currentTime);
+        return Math.max(MIN_UPDATE_INTERVAL, delay);
     }
 
-    // NEW: Aggressive energy notification cancellation
-    private void cancelAllEnergyNotificationsImmediately() {
-        try {
-            // Cancel using specific IDs
-            notificationManager.cancel(ENERGY_WARNING_ID);
-            notificationManager.cancel(ENERGY_EMERGENCY_ID);
+    // Returns the caught-up pet, or null when the service is stopping
+    private Pet updatePetStats() {
+        // Shared with MainActivity; milestones come back through onPetChanged. The
+        // rules and the schedule work on a private copy of the caught-up snapshot.
+        Pet pet = repository.catchUp(System.currentTimeMillis()).toPet();
 
-            // Additional cancellation for any potential duplicate notifications
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-                notificationManager.cancel("energy_warning", ENERGY_WARNING_ID);
-                notificationManager.cancel("energy_emergency", ENERGY_EMERGENCY_ID);
-            }
-
-            // Nuclear option: cancel all notifications from our app temporarily
-            new Handler().postDelayed(() -> {
-                notificationManager.cancel(ENERGY_WARNING_ID);
-                notificationManager.cancel(ENERGY_EMERGENCY_ID);
-            }, 100);
-
-            Log.d("PetService", "All energy notifications cancelled aggressively");
-        } catch (Exception e) {
-            Log.e("PetService", "Error cancelling energy notifications: " + e.getMessage());
+        // Dead before this update or during its catch-up: nothing is left to alert
+        // about, so clear what is showing and stop without planning another wakeup
+        if (!pet.isAlive()) {
+            Log.d("PetService", "Pet is not alive, stopping service");
+            resetAllAlerts();
+            handler.removeCallbacks(updateRunnable);
+            stopSelf();
+            return null;
         }
+        return pet;
     }
 
-    private void sendAlertNotification(String title, String message, int notificationId) {
-        try {
-            Notification alertNotification = new NotificationCompat.Builder(this, ALERT_CHANNEL_ID)
-                    .setContentTitle(title)
-                    .setContentText(message)
-                    .setSmallIcon(R.mipmap.ic_launcher)
-                    .setPriority(NotificationCompat.PRIORITY_HIGH)
-                    .setAutoCancel(true)
-                    .setDefaults(Notification.DEFAULT_ALL)
-                    .build();
-
-            notificationManager.notify(notificationId, alertNotification);
-            Log.d("PetService", "Notification sent: " + title + " (ID: " + notificationId + ")");
-        } catch (Exception e) {
-            Log.e("PetService", "Error sending notification: " + e.getMessage());
-        }
+    // Alerts follow from the pet state alone: evaluate the rules, then reconcile the
+    // posted notifications with them. Falling asleep turns the energy rules off, so
+    // their alerts are cancelled here as soon as the sleep event arrives.
+    private void checkLowStatsAndNotify(Pet pet) {
+        // One pass over the rule table; sleeping pets get no new alerts. Everything
+        // that fired this tick goes out together as one notification.
+        long now = System.currentTimeMillis();
+        alertRules.evaluate(pet, now);
+        alertDispatcher.dispatch(alertRules.getActive(), alertRules.getFired(), now);
     }
 
     private void resetAllAlerts() {
         Log.d("PetService", "Resetting all alerts");
-        for (AtomicBoolean sent : alertSentMap.values()) {
-            sent.set(false);
-        }
+        alertRules.reset();
         notificationManager.cancelAll();
     }
 
-    private void checkMilestonesInBackground(double previousAge, double currentAge) {
-        int previousDays = (int) previousAge;
-        int currentDays = (int) currentAge;
-
-        if (currentDays > previousDays && currentDays % 10 == 0) {
-            sendMilestoneNotification(currentDays);
-
-            Pet pet = petPreferences.loadPet();
-            pet.setMilestonesAchieved(currentDays / 10);
-            petPreferences.savePet(pet);
-        }
-    }
-
-    private void sendMilestoneNotification(int days) {
-        Notification milestoneNotification = new NotificationCompat.Builder(this, ALERT_CHANNEL_ID)
-                .setContentTitle("🎉 Milestone Achieved!")
-                .setContentText("Your DigiBuddy is now " + days + " days old! Amazing care!")
-                .setSmallIcon(R.mipmap.ic_launcher)
-                .setPriority(NotificationCompat.PRIORITY_HIGH)
-                .setAutoCancel(true)
-                .setDefaults(Notification.DEFAULT_ALL)
-                .build();
-
-        notificationManager.notify(MILESTONE_ID, milestoneNotification);
-    }
-
     @Override
     public void onDestroy() {
         Log.d("PetService", "Service destroying");
@@ -461,6 +201,8 @@ public class PetService extends Service {
         if (handler != null && updateRunnable != null) {
             handler.removeCallbacks(updateRunnable);
         }
+        repository.removeListener(petListener);
+        repository.flush();
         notificationManager.cancel(NOTIFICATION_ID);
     }
 
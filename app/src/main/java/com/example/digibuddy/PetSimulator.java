@@ -0,0 +1,251 @@
+package com.example.digibuddy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+// Fast-forwards a pet on the plain JVM: no Android, no waiting. Uses the same rules
+// as the app (PetDecay for decay and death, Pet for care effects and stages, the
+// MainActivity guards for when care is refused), and jumps straight from one
+// interesting moment to the next: a care action, a sample, a stage change. Decay is
+// closed-form, so months of simulated time cost a few thousand steps.
+public class PetSimulator {
+    private static final long MINUTE = PetDecay.MILLIS_PER_MINUTE;
+
+    public static final class Sample {
+        public final long offset; // millis since the start of the run
+        public final double hunger;
+        public final double happiness;
+        public final double energy;
+        public final double cleanliness;
+        public final double age;
+        public final boolean sleeping;
+
+        Sample(long offset, Pet pet) {
+            this.offset = offset;
+            this.hunger = pet.getHunger();
+            this.happiness = pet.getHappiness();
+            this.energy = pet.getEnergy();
+            this.cleanliness = pet.getCleanliness();
+            this.age = pet.getAge();
+            this.sleeping = pet.isSleeping();
+        }
+    }
+
+    public static final class StageChange {
+        public final long offset;
+        public final PetStage stage;
+
+        StageChange(long offset, PetStage stage) {
+            this.offset = offset;
+            this.stage = stage;
+        }
+    }
+
+    public static final class Result {
+        private final List<Sample> samples = new ArrayList<>();
+        private final List<StageChange> stageChanges = new ArrayList<>();
+        private final Pet pet;
+        private long deathOffset = -1;
+        private int deathCause;
+        private int careApplied;
+        private int careRefused;
+
+        Result(Pet pet) {
+            this.pet = pet;
+        }
+
+        public List<Sample> getSamples() {
+            return Collections.unmodifiableList(samples);
+        }
+
+        public List<StageChange> getStageChanges() {
+            return Collections.unmodifiableList(stageChanges);
+        }
+
+        // Millis from the start until the pet died, or -1 if it outlived the run
+        public long getDeathOffset() {
+            return deathOffset;
+        }
+
+        // PetJournal.DEATH_* bits of the stats that reached zero
+        public int getDeathCause() {
+            return deathCause;
+        }
+
+        // The pet at the end of the run
+        public Pet getPet() {
+            return pet;
+        }
+
+        public int getCareApplied() {
+            return careApplied;
+        }
+
+        // Actions the app would have refused (asleep, dead, too tired to play)
+        public int getCareRefused() {
+            return careRefused;
+        }
+    }
+
+    private final long sampleInterval;
+
+    public PetSimulator(long sampleInterval) {
+        if (sampleInterval <= 0) {
+            throw new IllegalArgumentException("sampleInterval must be positive");
+        }
+        this.sampleInterval = sampleInterval;
+    }
+
+    // Runs from start.getLastUpdate() for durationMillis; start itself is not modified
+    public Result run(Pet start, CareSchedule schedule, long durationMillis) {
+        Pet pet = new Pet();
+        pet.copyFrom(start);
+        Result result = new Result(pet);
+        long origin = pet.getLastUpdate();
+        int[] due = new int[Math.max(1, schedule.size())];
+
+        long offset = 0;
+        long nextSample = sampleInterval;
+        long nextCare = schedule.nextAt(0);
+        result.samples.add(new Sample(0, pet));
+
+        while (offset < durationMillis && pet.isAlive()) {
+            long target = Math.min(durationMillis, Math.min(nextSample, nextCare));
+            target = Math.min(target, nextStageOffset(pet, offset));
+
+            PetStage stage = pet.getLifeStage();
+            double minutes = PetDecay.advance(pet, origin + target);
+            if (!pet.isAlive()) {
+                result.deathOffset = offset + Math.round(minutes * MINUTE);
+                result.deathCause = PetJournal.deathCause(pet);
+                result.samples.add(new Sample(result.deathOffset, pet));
+                break;
+            }
+            offset = target;
+            if (stage != pet.getLifeStage()) {
+                result.stageChanges.add(new StageChange(offset, pet.getLifeStage()));
+            }
+            int milestones = (int) pet.getAge() / Pet.MILESTONE_DAYS;
+            if (milestones > pet.getMilestonesAchieved()) {
+                pet.setMilestonesAchieved(milestones);
+            }
+
+            if (offset == nextCare) {
+                int count = schedule.eventsAt(offset, due);
+                for (int i = 0; i < count; i++) {
+                    if (applyCare(pet, due[i])) {
+                        result.careApplied++;
+                    } else {
+                        result.careRefused++;
+                    }
+                }
+                nextCare = schedule.nextAt(offset + 1);
+            }
+            if (offset == nextSample || offset == durationMillis) {
+                result.samples.add(new Sample(offset, pet));
+                nextSample = offset + sampleInterval;
+            }
+        }
+        return result;
+    }
+
+    // Offset at which the pet's age reaches the next stage boundary
+    private static long nextStageOffset(Pet pet, long offset) {
+        PetStage next = PetStage.forAgeSeconds(pet.getAgeSeconds()).next();
+        if (next == null) {
+            return Long.MAX_VALUE;
+        }
+        // At least 1ms, so a value a hair below the boundary still moves on
+        return offset + Math.max(1, (long) Math.ceil(PetDecay.minutesUntilAge(pet, next.fromDay) * MINUTE));
+    }
+
+    // The same checks MainActivity makes before a care action
+    static boolean applyCare(Pet pet, int event) {
+        if (!pet.isAlive()) {
+            return false;
+        }
+        switch (event) {
+            case PetJournal.EVENT_FEED:
+                if (pet.isSleeping()) return false;
+                pet.feed();
+                return true;
+            case PetJournal.EVENT_PLAY:
+                if (pet.isSleeping() || pet.getEnergy() < PetUiModel.PLAY_ENERGY) return false;
+                pet.play();
+                return true;
+            case PetJournal.EVENT_CLEAN:
+                if (pet.isSleeping()) return false;
+                pet.clean();
+                return true;
+            case PetJournal.EVENT_SLEEP:
+                if (pet.isSleeping()) return false;
+                pet.setSleeping(true);
+                return true;
+            case PetJournal.EVENT_WAKE:
+                if (!pet.isSleeping()) return false;
+                pet.setSleeping(false);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Loads a save the way PetPreferences does: the snapshot plus its journal
+    public static Pet loadSave(File filesDir) throws IOException {
+        PetSnapshotStore snapshotStore = new PetSnapshotStore(new File(filesDir, "pet.snapshot"));
+        Pet pet = snapshotStore.load();
+        if (pet == null) {
+            throw new IOException("No readable snapshot in " + filesDir);
+        }
+        PetJournal journal = new PetJournal(new File(filesDir, "pet.journal"));
+        if (journal.getBaseSequence() == snapshotStore.getSequence()) {
+            journal.replay(pet);
+        }
+        return pet;
+    }
+
+    // Usage: PetSimulator <filesDir> <days> [schedule] [sampleMinutes]
+    // filesDir is a copy of the app's files dir (adb exec-out run-as ...); the schedule
+    // uses CareSchedule.parse syntax. Prints the trajectory as CSV, then stages and death.
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: PetSimulator <filesDir> <days> [schedule] [sampleMinutes]");
+            System.exit(2);
+        }
+        Pet pet = loadSave(new File(args[0]));
+        long duration = (long) (Double.parseDouble(args[1]) * PetDecay.MINUTES_PER_DAY * MINUTE);
+        CareSchedule schedule = CareSchedule.parse(args.length > 2 ? args[2] : "");
+        long sampleMinutes = args.length > 3 ? Long.parseLong(args[3]) : 60;
+
+        Result result = new PetSimulator(sampleMinutes * MINUTE).run(pet, schedule, duration);
+        print(result, System.out);
+    }
+
+    static void print(Result result, PrintStream out) {
+        out.println("day,hunger,happiness,energy,cleanliness,age,sleeping");
+        for (Sample sample : result.samples) {
+            out.println(String.format(Locale.US, "%.4f,%.2f,%.2f,%.2f,%.2f,%.4f,%b",
+                    days(sample.offset), sample.hunger, sample.happiness, sample.energy,
+                    sample.cleanliness, sample.age, sample.sleeping));
+        }
+        for (StageChange change : result.stageChanges) {
+            out.println(String.format(Locale.US, "# stage %s at day %.4f", change.stage.id, days(change.offset)));
+        }
+        if (result.deathOffset >= 0) {
+            out.println(String.format(Locale.US, "# died at day %.4f (cause bits %d)",
+                    days(result.deathOffset), result.deathCause));
+        } else {
+            out.println("# alive at end of run");
+        }
+        out.println("# care applied " + result.careApplied + ", refused " + result.careRefused);
+    }
+
+    private static double days(long offset) {
+        return offset / (double) MINUTE / PetDecay.MINUTES_PER_DAY;
+    }
+}
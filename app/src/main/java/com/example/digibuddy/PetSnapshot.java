@@ -0,0 +1,172 @@
+package com.example.digibuddy;
+
+// An immutable pet, as PetRepository publishes it. The state is the two packed
+// words PetSnapshotStore writes (see PetState) plus lastUpdate, so a snapshot is
+// three longs and can never be seen half-written. Care actions and ticks are pure
+// transitions that return a new snapshot (or this one when nothing changes);
+// PetRepository applies them with compare-and-set, so a feed racing a tick is
+// retried on top of the tick instead of overwriting it.
+//
+// The APIs that work on a mutable Pet (PetDecay, PetMood, AlertRuleEngine) get one
+// through toPet(). version counts transitions since the process started.
+public final class PetSnapshot {
+    private final long low;
+    private final long high;
+    private final long lastUpdate;
+    private final long version;
+
+    // Built at most once per snapshot; racy but benign, PetUiModel is immutable
+    private PetUiModel uiModel;
+
+    private PetSnapshot(long low, long high, long lastUpdate, long version) {
+        this.low = low;
+        this.high = high;
+        this.lastUpdate = lastUpdate;
+        this.version = version;
+    }
+
+    public static PetSnapshot of(Pet pet) {
+        return of(pet, 0);
+    }
+
+    static PetSnapshot of(Pet pet, long version) {
+        return new PetSnapshot(PetState.packLow(pet), PetState.packHigh(pet), pet.getLastUpdate(), version);
+    }
+
+    // A fresh mutable copy; changing it does not affect the snapshot
+    public Pet toPet() {
+        Pet pet = new Pet();
+        PetState.unpack(low, high, pet);
+        pet.setLastUpdate(lastUpdate);
+        return pet;
+    }
+
+    public PetUiModel uiModel() {
+        PetUiModel model = uiModel;
+        if (model == null) {
+            model = PetUiModel.of(toPet());
+            uiModel = model;
+        }
+        return model;
+    }
+
+    // Transitions. advance() catches the pet up to now and credits any milestone the
+    // new age has earned, catchUp() does the same with PetDecay.catchUp's rule for
+    // fresh pets; the actions apply to the snapshot as it is, so callers
+    // advance first to land them on top of exact decay. An action a dead pet, or a
+    // sleeping one where it needs the pet awake, cannot take returns this.
+
+    public PetSnapshot advance(long now) {
+        if (!isAlive()) {
+            return this;
+        }
+        Pet pet = toPet();
+        PetDecay.advance(pet, now);
+        creditMilestones(pet);
+        return next(pet);
+    }
+
+    public PetSnapshot catchUp(long now) {
+        if (!isAlive()) {
+            return this;
+        }
+        Pet pet = toPet();
+        PetDecay.catchUp(pet, now);
+        creditMilestones(pet);
+        return next(pet);
+    }
+
+    public PetSnapshot feed() {
+        if (!isAlive() || isSleeping()) {
+            return this;
+        }
+        Pet pet = toPet();
+        pet.feed();
+        return next(pet);
+    }
+
+    public PetSnapshot play() {
+        if (!isAlive() || isSleeping() || getEnergy() < PetUiModel.PLAY_ENERGY) {
+            return this;
+        }
+        Pet pet = toPet();
+        pet.play();
+        return next(pet);
+    }
+
+    public PetSnapshot clean() {
+        if (!isAlive() || isSleeping()) {
+            return this;
+        }
+        Pet pet = toPet();
+        pet.clean();
+        return next(pet);
+    }
+
+    public PetSnapshot withSleeping(boolean sleeping) {
+        if (!isAlive() || sleeping == isSleeping()) {
+            return this;
+        }
+        Pet pet = toPet();
+        pet.setSleeping(sleeping);
+        return next(pet);
+    }
+
+    // Debug only: jumps the pet forward by whole days
+    public PetSnapshot withAgeAdded(int days) {
+        if (!isAlive() || days <= 0) {
+            return this;
+        }
+        Pet pet = toPet();
+        pet.setAgeSeconds(pet.getAgeSeconds() + days * PetState.SECONDS_PER_DAY);
+        pet.updateStage();
+        creditMilestones(pet);
+        return next(pet);
+    }
+
+    // A new pet replacing this one
+    public PetSnapshot reset(Pet fresh) {
+        return of(fresh, version + 1);
+    }
+
+    private static void creditMilestones(Pet pet) {
+        int milestones = (int) (pet.getAgeSeconds() / (Pet.MILESTONE_DAYS * PetState.SECONDS_PER_DAY));
+        if (milestones > pet.getMilestonesAchieved()) {
+            pet.setMilestonesAchieved(milestones);
+        }
+    }
+
+    private PetSnapshot next(Pet pet) {
+        long nextLow = PetState.packLow(pet);
+        long nextHigh = PetState.packHigh(pet);
+        if (nextLow == low && nextHigh == high && pet.getLastUpdate() == lastUpdate) {
+            return this;
+        }
+        return new PetSnapshot(nextLow, nextHigh, pet.getLastUpdate(), version + 1);
+    }
+
+    public long getVersion() { return version; }
+
+    public int getHungerUnits() { return PetState.hungerUnits(low); }
+    public int getHappinessUnits() { return PetState.happinessUnits(low); }
+    public int getEnergyUnits() { return PetState.energyUnits(low); }
+    public int getCleanlinessUnits() { return PetState.cleanlinessUnits(high); }
+    public long getAgeSeconds() { return PetState.ageSeconds(high); }
+    public int getMilestonesAchieved() { return PetState.milestones(high); }
+    public boolean isSleeping() { return PetState.isSleeping(low); }
+    public boolean isAlive() { return PetState.isAlive(low); }
+    public PetStage getLifeStage() { return PetState.stage(low); }
+    public long getLastUpdate() { return lastUpdate; }
+
+    public double getHunger() { return PetState.toPoints(getHungerUnits()); }
+    public double getHappiness() { return PetState.toPoints(getHappinessUnits()); }
+    public double getEnergy() { return PetState.toPoints(getEnergyUnits()); }
+    public double getCleanliness() { return PetState.toPoints(getCleanlinessUnits()); }
+    // In days
+    public double getAge() { return PetState.toDays(getAgeSeconds()); }
+    public String getStage() { return getLifeStage().id; }
+
+    public boolean isFresh() {
+        return PetDecay.isFresh(toPet());
+    }
+}
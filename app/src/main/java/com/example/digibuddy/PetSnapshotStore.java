@@ -0,0 +1,151 @@
+package com.example.digibuddy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+// Fixed-layout binary store for a single Pet with two alternating slots (A/B).
+// Each save goes to the slot not holding the newest record and is forced to disk,
+// so a torn or corrupt write only ever damages the older copy. Loads pick the
+// valid slot with the highest sequence number.
+//
+// Slot layout (little endian, SLOT_SIZE bytes), version 2:
+//   0  int    magic
+//   4  int    version
+//   8  long   sequence
+//   16 long   PetState.packLow
+//   24 long   PetState.packHigh
+//   32 long   lastUpdate
+//   40 int    CRC32 of bytes 0..39
+// The packed words are the pet's exact fixed-point state, so a save and load gives
+// back bit-identical stats. A slot of any other version is invalid, like a corrupt one.
+public class PetSnapshotStore {
+    static final int MAGIC = 0x44504554; // "DPET"
+    static final int VERSION = 2;
+    static final int SLOT_SIZE = 128;
+    private static final int RECORD_SIZE = 40;
+
+    private final File file;
+    private final ByteBuffer buffer = ByteBuffer.allocate(SLOT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32 crc = new CRC32();
+
+    // Newest valid sequence on disk and the slot it lives in, -1 when unknown
+    private long sequence = -1;
+    private int slot = -1;
+
+    public PetSnapshotStore(File file) {
+        this.file = file;
+    }
+
+    // Sequence of the newest record loaded or saved, -1 when none
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    public boolean exists() {
+        return file.exists() && file.length() > 0;
+    }
+
+    // Returns the newest valid record, or null if neither slot holds one
+    public synchronized Pet load() throws IOException {
+        if (!exists()) {
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            FileChannel channel = raf.getChannel();
+            Pet best = null;
+            long bestSequence = -1;
+            int bestSlot = -1;
+            for (int i = 0; i < 2; i++) {
+                Pet pet = new Pet();
+                long recordSequence = readSlot(channel, i, pet);
+                if (recordSequence > bestSequence) {
+                    best = pet;
+                    bestSequence = recordSequence;
+                    bestSlot = i;
+                }
+            }
+            sequence = bestSequence;
+            slot = bestSlot;
+            return best;
+        }
+    }
+
+    public synchronized void save(Pet pet) throws IOException {
+        if (sequence < 0 && exists()) {
+            // Learn which slot is current before overwriting anything
+            load();
+        }
+        int target = slot == 0 ? 1 : 0;
+        long nextSequence = sequence + 1;
+
+        buffer.clear();
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(nextSequence);
+        buffer.putLong(PetState.packLow(pet));
+        buffer.putLong(PetState.packHigh(pet));
+        buffer.putLong(pet.getLastUpdate());
+        crc.reset();
+        crc.update(buffer.array(), 0, RECORD_SIZE);
+        buffer.putInt((int) crc.getValue());
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0);
+        }
+        buffer.flip();
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            FileChannel channel = raf.getChannel();
+            long position = (long) target * SLOT_SIZE;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+        }
+        sequence = nextSequence;
+        slot = target;
+    }
+
+    public synchronized void clear() throws IOException {
+        if (file.exists() && !file.delete()) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(0);
+            }
+        }
+        sequence = -1;
+        slot = -1;
+    }
+
+    // Fills the pet from a slot and returns its sequence, or -1 if the slot is invalid
+    private long readSlot(FileChannel channel, int index, Pet pet) throws IOException {
+        buffer.clear();
+        long position = (long) index * SLOT_SIZE;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                return -1;
+            }
+            position += read;
+        }
+        buffer.flip();
+
+        crc.reset();
+        crc.update(buffer.array(), 0, RECORD_SIZE);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || buffer.getInt(RECORD_SIZE) != (int) crc.getValue()) {
+            return -1;
+        }
+
+        buffer.position(8);
+        long recordSequence = buffer.getLong();
+        long low = buffer.getLong();
+        long high = buffer.getLong();
+        PetState.unpack(low, high, pet);
+        pet.setLastUpdate(buffer.getLong());
+        return recordSequence;
+    }
+}
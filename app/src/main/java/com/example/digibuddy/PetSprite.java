@@ -0,0 +1,43 @@
+package com.example.digibuddy;
+
+// Which pet image to show; MainActivity maps each sprite to its drawable.
+public enum PetSprite {
+    EGG, BABY, TEEN, ADULT, HAPPY, HUNGRY, TIRED, DIRTY;
+
+    public static PetSprite of(Pet pet, PetMood mood) {
+        PetStage stage = pet.getLifeStage();
+
+        // Eggs have no moods
+        if (stage == PetStage.EGG) {
+            return EGG;
+        }
+
+        // Sleeping pets use the tired image
+        if (pet.isSleeping()) {
+            return TIRED;
+        }
+
+        if (pet.isAlive()) {
+            switch (mood) {
+                case HAPPY:
+                    return HAPPY;
+                case HUNGRY:
+                    return HUNGRY;
+                case TIRED:
+                    return TIRED;
+                case DIRTY:
+                    return DIRTY;
+                default:
+                    break;
+            }
+        }
+
+        // Fall back to the life stage image
+        switch (stage) {
+            case BABY: return BABY;
+            case TEEN: return TEEN;
+            case ADULT: return ADULT;
+            default: return EGG;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.digibuddy;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.util.Log;
+import android.util.LruCache;
+import android.view.View;
+import android.view.ViewGroup;
+import androidx.core.content.ContextCompat;
+
+// Pet sprites rasterized once at the size they are shown. setImageResource() parses
+// the vector XML and renders its paths again on every call; this parses each sprite
+// once, draws it into a bitmap at the target view's pixel size and hands back the
+// same BitmapDrawable from then on, so ImageView can skip work when the instance
+// has not changed. The LRU is bounded in bytes (one 180dp sprite is ~2 MB on xxxhdpi).
+public class PetSpriteCache {
+    private static final int MAX_BYTES = 8 * 1024 * 1024;
+
+    private final Context context;
+    private final LruCache<PetSprite, BitmapDrawable> cache;
+
+    // Pixel size the cached bitmaps were rendered at
+    private int width;
+    private int height;
+
+    public PetSpriteCache(Context context) {
+        this.context = context.getApplicationContext();
+        // Never take more than 1/16 of the heap on small devices
+        int maxBytes = (int) Math.min(MAX_BYTES, Runtime.getRuntime().maxMemory() / 16);
+        cache = new LruCache<PetSprite, BitmapDrawable>(maxBytes) {
+            @Override
+            protected int sizeOf(PetSprite sprite, BitmapDrawable drawable) {
+                return drawable.getBitmap().getByteCount();
+            }
+        };
+    }
+
+    // The sprite rendered for target's content box, or null if it could not be drawn
+    public Drawable get(PetSprite sprite, int drawableId, View target) {
+        int targetWidth = contentSize(target, true);
+        int targetHeight = contentSize(target, false);
+        if (targetWidth != width || targetHeight != height) {
+            // Resized (rotation, first layout): older bitmaps are the wrong size
+            cache.evictAll();
+            width = targetWidth;
+            height = targetHeight;
+        }
+
+        BitmapDrawable cached = cache.get(sprite);
+        if (cached != null) {
+            return cached;
+        }
+        BitmapDrawable rendered = render(drawableId);
+        if (rendered != null) {
+            cache.put(sprite, rendered);
+        }
+        return rendered;
+    }
+
+    public void clear() {
+        cache.evictAll();
+    }
+
+    private BitmapDrawable render(int drawableId) {
+        try {
+            Drawable source = ContextCompat.getDrawable(context, drawableId);
+            if (source == null || width <= 0 || height <= 0) {
+                return null;
+            }
+            Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            source.setBounds(0, 0, width, height);
+            source.draw(new Canvas(bitmap));
+            Log.d("SpriteCache", "Rasterized drawable " + drawableId + " at " + width + "x" + height);
+            return new BitmapDrawable(context.getResources(), bitmap);
+        } catch (Exception e) {
+            Log.e("SpriteCache", "Error rasterizing drawable " + drawableId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Laid-out size minus padding; before the first layout, the fixed size from the layout XML
+    private static int contentSize(View view, boolean horizontal) {
+        int size = horizontal ? view.getWidth() : view.getHeight();
+        if (size <= 0) {
+            ViewGroup.LayoutParams params = view.getLayoutParams();
+            if (params != null) {
+                size = horizontal ? params.width : params.height;
+            }
+        }
+        if (size <= 0) {
+            return 0;
+        }
+        int padding = horizontal
+                ? view.getPaddingLeft() + view.getPaddingRight()
+                : view.getPaddingTop() + view.getPaddingBottom();
+        return Math.max(0, size - padding);
+    }
+}
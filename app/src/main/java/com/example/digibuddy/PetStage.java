@@ -0,0 +1,52 @@
+package com.example.digibuddy;
+
+// Life stage by age. The ordinal is the 2-bit code stored in packed state and
+// snapshots; id is the name used in logs and the legacy preferences.
+public enum PetStage {
+    EGG("egg", 0), BABY("baby", 1), TEEN("teen", 3), ADULT("adult", 7);
+
+    private static final PetStage[] VALUES = values();
+
+    public final String id;
+    // Age in days at which the stage begins
+    public final int fromDay;
+
+    PetStage(String id, int fromDay) {
+        this.id = id;
+        this.fromDay = fromDay;
+    }
+
+    // Age in seconds at which the stage begins
+    public long fromSeconds() {
+        return fromDay * PetState.SECONDS_PER_DAY;
+    }
+
+    // The stage that follows, or null for the last one
+    public PetStage next() {
+        int i = ordinal() + 1;
+        return i < VALUES.length ? VALUES[i] : null;
+    }
+
+    public static PetStage forAgeSeconds(long ageSeconds) {
+        for (int i = VALUES.length - 1; i > 0; i--) {
+            if (ageSeconds >= VALUES[i].fromSeconds()) {
+                return VALUES[i];
+            }
+        }
+        return EGG;
+    }
+
+    public static PetStage fromCode(int code) {
+        return VALUES[code & 3];
+    }
+
+    // Unknown names fall back to EGG, as the old string field did
+    public static PetStage fromId(String id) {
+        for (PetStage stage : VALUES) {
+            if (stage.id.equals(id)) {
+                return stage;
+            }
+        }
+        return EGG;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.digibuddy;
+
+// Fixed-point pet state. Stats are integer units of 1/7500 point: every decay rate is
+// a whole number of units per second (0.08/min is 10, 0.016/min is 2, sleeping energy
+// +0.24/min is 30), so decay is exact integer arithmetic and replaying the same events
+// gives bit-identical state in the activity, the service and the journal. Age is whole
+// seconds. 100 points is 750,000 units and fits in 20 bits.
+//
+// A whole pet (minus lastUpdate) packs into two longs:
+//   low:  bits 0-19 hunger, 20-39 happiness, 40-59 energy,
+//         60 sleeping, 61 alive, 62-63 stage
+//   high: bits 0-19 cleanliness, 20-51 age in seconds (136 years),
+//         52-63 milestones achieved (saturates at 4095)
+public final class PetState {
+    public static final int UNITS_PER_POINT = 7500;
+    public static final int MAX_UNITS = 100 * UNITS_PER_POINT;
+    public static final long SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private static final int STAT_BITS = 20;
+    private static final long STAT_MASK = (1L << STAT_BITS) - 1;
+    private static final int SLEEPING_BIT = 60;
+    private static final int ALIVE_BIT = 61;
+    private static final int STAGE_SHIFT = 62;
+    private static final int AGE_SHIFT = 20;
+    private static final long AGE_MASK = 0xFFFFFFFFL;
+    private static final int MILESTONE_SHIFT = 52;
+    public static final int MAX_MILESTONES = (1 << 12) - 1;
+
+    private PetState() {
+    }
+
+    // Nearest unit, clamped to [0, MAX_UNITS]
+    public static int toUnits(double points) {
+        return clampUnits(Math.round(points * UNITS_PER_POINT));
+    }
+
+    public static double toPoints(int units) {
+        return units / (double) UNITS_PER_POINT;
+    }
+
+    public static int clampUnits(long units) {
+        return (int) Math.max(0, Math.min(MAX_UNITS, units));
+    }
+
+    public static long toSeconds(double days) {
+        return Math.max(0, Math.min(AGE_MASK, Math.round(days * SECONDS_PER_DAY)));
+    }
+
+    public static double toDays(long seconds) {
+        return seconds / (double) SECONDS_PER_DAY;
+    }
+
+    // Points per minute to units per second; exact for every rate in PetDecay
+    public static int unitsPerSecond(double pointsPerMinute) {
+        return (int) Math.round(pointsPerMinute * UNITS_PER_POINT / 60);
+    }
+
+    public static long packLow(Pet pet) {
+        long low = pet.getHungerUnits()
+                | (long) pet.getHappinessUnits() << STAT_BITS
+                | (long) pet.getEnergyUnits() << (2 * STAT_BITS)
+                | (long) pet.getLifeStage().ordinal() << STAGE_SHIFT;
+        if (pet.isSleeping()) low |= 1L << SLEEPING_BIT;
+        if (pet.isAlive()) low |= 1L << ALIVE_BIT;
+        return low;
+    }
+
+    public static long packHigh(Pet pet) {
+        return pet.getCleanlinessUnits()
+                | (pet.getAgeSeconds() & AGE_MASK) << AGE_SHIFT
+                | (long) Math.min(MAX_MILESTONES, pet.getMilestonesAchieved()) << MILESTONE_SHIFT;
+    }
+
+    // Sets every packed field; the stage is taken as stored, not recomputed from age
+    public static void unpack(long low, long high, Pet pet) {
+        pet.setHungerUnits(hungerUnits(low));
+        pet.setHappinessUnits(happinessUnits(low));
+        pet.setEnergyUnits(energyUnits(low));
+        pet.setCleanlinessUnits(cleanlinessUnits(high));
+        pet.setAgeSeconds(ageSeconds(high));
+        pet.setLifeStage(stage(low));
+        pet.setSleeping(isSleeping(low));
+        pet.setAlive(isAlive(low));
+        pet.setMilestonesAchieved(milestones(high));
+    }
+
+    // Single fields of the packed words, for readers that do not need a whole Pet
+    public static int hungerUnits(long low) { return (int) (low & STAT_MASK); }
+    public static int happinessUnits(long low) { return (int) (low >>> STAT_BITS & STAT_MASK); }
+    public static int energyUnits(long low) { return (int) (low >>> (2 * STAT_BITS) & STAT_MASK); }
+    public static PetStage stage(long low) { return PetStage.fromCode((int) (low >>> STAGE_SHIFT)); }
+    public static boolean isSleeping(long low) { return (low & 1L << SLEEPING_BIT) != 0; }
+    public static boolean isAlive(long low) { return (low & 1L << ALIVE_BIT) != 0; }
+    public static int cleanlinessUnits(long high) { return (int) (high & STAT_MASK); }
+    public static long ageSeconds(long high) { return high >>> AGE_SHIFT & AGE_MASK; }
+    public static int milestones(long high) { return (int) (high >>> MILESTONE_SHIFT); }
+}
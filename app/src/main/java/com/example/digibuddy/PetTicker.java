@@ -0,0 +1,59 @@
+package com.example.digibuddy;
+
+import android.os.Handler;
+
+// Drives the pet while MainActivity is visible. Instead of advancing at a fixed
+// 1 Hz it asks PetUiModel when the next displayed value can change and sleeps until
+// then: an awake pet's fastest stat takes ~12 minutes per point, so the foreground
+// goes from 60 wakeups a minute to a handful an hour with the same UI. Stopped in
+// onStop; the pet is caught up in one closed-form step when it becomes visible
+// again, and a change from anywhere else (actions, PetService) reschedules it.
+// Runs on the repository's simulation thread, so a tick's side effects run inline.
+public class PetTicker implements Runnable {
+    private final Handler handler;
+    private final PetRepository repository;
+    // Written on the main thread, read on the simulation thread
+    private volatile boolean running;
+
+    public PetTicker(PetRepository repository) {
+        this.handler = repository.getHandler();
+        this.repository = repository;
+    }
+
+    public void start() {
+        running = true;
+        reschedule();
+    }
+
+    public void stop() {
+        running = false;
+        handler.removeCallbacks(this);
+    }
+
+    // Plans the next tick from the pet as it is now; call after anything changed it
+    public void reschedule() {
+        handler.removeCallbacks(this);
+        PetSnapshot pet = repository.getPet();
+        if (!running || !pet.isAlive()) {
+            return;
+        }
+        long seconds = PetUiModel.secondsUntilChange(pet.toPet());
+        if (seconds == Long.MAX_VALUE) {
+            return;
+        }
+        // Decay is applied in whole seconds from lastUpdate, so that is the due time
+        long due = pet.getLastUpdate() + seconds * 1000;
+        long delay = Math.max(0, due - System.currentTimeMillis());
+        handler.postDelayed(this, delay);
+        PetLog.d("PetTicker", "Next tick in {} ms", delay);
+    }
+
+    @Override
+    public void run() {
+        if (!running) {
+            return;
+        }
+        repository.advance(System.currentTimeMillis());
+        reschedule();
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.digibuddy;
+
+// Immutable snapshot of everything MainActivity shows for a pet, reduced to the
+// integers and enums the views display. Two models are compared with changesFrom()
+// so the activity only touches views whose value actually changed, and
+// secondsUntilChange() tells it when the next one can, so it ticks only then.
+public final class PetUiModel {
+    public static final int CHANGED_HUNGER = 1;
+    public static final int CHANGED_HAPPINESS = 1 << 1;
+    public static final int CHANGED_ENERGY = 1 << 2;
+    public static final int CHANGED_CLEANLINESS = 1 << 3;
+    public static final int CHANGED_AGE = 1 << 4;
+    public static final int CHANGED_STARS = 1 << 5;
+    public static final int CHANGED_SPRITE = 1 << 6;
+    public static final int CHANGED_STATE = 1 << 7; // alive or sleeping
+    public static final int CHANGED_MESSAGE = 1 << 8;
+    public static final int CHANGED_BUTTONS = 1 << 9;
+    public static final int CHANGED_ALERT = 1 << 10;
+    public static final int CHANGED_ALL = (1 << 11) - 1;
+
+    // Minimum energy needed to play
+    static final int PLAY_ENERGY = 20;
+
+    // Mood line under the pet
+    public enum Message {
+        DEAD, EGG, HAPPY, HUNGRY, TIRED, SLEEPING, DIRTY, GREAT_DAY, ENERGETIC, OKAY
+    }
+
+    // Low stat warning (25%) and emergency (15%) bands. One alert at a time: any
+    // warning band is checked before the emergency bands, as checkLowStats always did
+    public enum Alert {
+        NONE,
+        HUNGER_WARNING, HAPPINESS_WARNING, ENERGY_WARNING, CLEANLINESS_WARNING,
+        HUNGER_EMERGENCY, HAPPINESS_EMERGENCY, ENERGY_EMERGENCY, CLEANLINESS_EMERGENCY
+    }
+
+    public final int hunger;
+    public final int happiness;
+    public final int energy;
+    public final int cleanliness;
+    public final int age;
+    public final int stars;
+    public final PetMood mood;
+    public final PetSprite sprite;
+    public final boolean alive;
+    public final boolean sleeping;
+    public final Message message;
+    public final boolean feedEnabled;
+    public final boolean playEnabled;
+    public final boolean cleanEnabled;
+    public final Alert alert;
+
+    private PetUiModel(Pet pet) {
+        hunger = (int) pet.getHunger();
+        happiness = (int) pet.getHappiness();
+        energy = (int) pet.getEnergy();
+        cleanliness = (int) pet.getCleanliness();
+        age = (int) pet.getAge();
+        stars = age / Pet.MILESTONE_DAYS;
+        mood = PetMood.of(pet);
+        sprite = PetSprite.of(pet, mood);
+        alive = pet.isAlive();
+        sleeping = pet.isSleeping();
+        message = messageFor(pet, mood);
+        feedEnabled = alive && !sleeping;
+        playEnabled = alive && !sleeping && pet.getEnergy() >= PLAY_ENERGY;
+        cleanEnabled = alive && !sleeping;
+        alert = alertFor(pet);
+    }
+
+    public static PetUiModel of(Pet pet) {
+        return new PetUiModel(pet);
+    }
+
+    // CHANGED_* bits for every displayed value that differs from previous (all when null)
+    public int changesFrom(PetUiModel previous) {
+        if (previous == null) {
+            return CHANGED_ALL;
+        }
+        int changes = 0;
+        if (hunger != previous.hunger) changes |= CHANGED_HUNGER;
+        if (happiness != previous.happiness) changes |= CHANGED_HAPPINESS;
+        if (energy != previous.energy) changes |= CHANGED_ENERGY;
+        if (cleanliness != previous.cleanliness) changes |= CHANGED_CLEANLINESS;
+        if (age != previous.age) changes |= CHANGED_AGE;
+        if (stars != previous.stars) changes |= CHANGED_STARS;
+        if (sprite != previous.sprite) changes |= CHANGED_SPRITE;
+        if (alive != previous.alive || sleeping != previous.sleeping) changes |= CHANGED_STATE;
+        if (message != previous.message) changes |= CHANGED_MESSAGE;
+        if (feedEnabled != previous.feedEnabled || playEnabled != previous.playEnabled
+                || cleanEnabled != previous.cleanEnabled) changes |= CHANGED_BUTTONS;
+        if (alert != previous.alert) changes |= CHANGED_ALERT;
+        return changes;
+    }
+
+    // Whole seconds of decay until a displayed value can next change. Every threshold
+    // the model tests and every integer it shows sits on a whole point (or, for age,
+    // a whole day), so this is the first second at which a stat reaches or passes a
+    // whole point or the age a whole day. Long.MAX_VALUE for a dead pet.
+    public static long secondsUntilChange(Pet pet) {
+        if (!pet.isAlive()) {
+            return Long.MAX_VALUE;
+        }
+        boolean sleeping = pet.isSleeping();
+        long seconds = secondsUntilWholePoint(pet.getHungerUnits(), PetDecay.hungerUnitsPerSecond(sleeping));
+        seconds = Math.min(seconds, secondsUntilWholePoint(pet.getHappinessUnits(), PetDecay.happinessUnitsPerSecond(sleeping)));
+        seconds = Math.min(seconds, secondsUntilWholePoint(pet.getEnergyUnits(), PetDecay.energyUnitsPerSecond(sleeping)));
+        seconds = Math.min(seconds, secondsUntilWholePoint(pet.getCleanlinessUnits(), PetDecay.cleanlinessUnitsPerSecond(sleeping)));
+        long day = PetState.SECONDS_PER_DAY;
+        return Math.min(seconds, day - pet.getAgeSeconds() % day);
+    }
+
+    // A stat sitting exactly on a point changes "> n" or "< n" one second later;
+    // otherwise it changes on reaching the next point in its direction
+    private static long secondsUntilWholePoint(int units, int unitsPerSecond) {
+        int point = PetState.UNITS_PER_POINT;
+        long distance;
+        if (unitsPerSecond > 0) {
+            // At zero the next advance kills the pet
+            distance = units <= 0 || units % point == 0 ? 1 : units % point;
+        } else if (unitsPerSecond < 0) {
+            if (units >= PetState.MAX_UNITS) {
+                return Long.MAX_VALUE;
+            }
+            distance = units % point == 0 ? 1 : point - units % point;
+        } else {
+            return Long.MAX_VALUE;
+        }
+        long rate = Math.abs(unitsPerSecond);
+        return (distance + rate - 1) / rate;
+    }
+
+    private static Message messageFor(Pet pet, PetMood mood) {
+        if (!pet.isAlive()) {
+            return Message.DEAD;
+        }
+        if (pet.getLifeStage() == PetStage.EGG) {
+            return Message.EGG;
+        }
+        switch (mood) {
+            case HAPPY: return Message.HAPPY;
+            case HUNGRY: return Message.HUNGRY;
+            case TIRED: return Message.TIRED;
+            case SLEEPING: return Message.SLEEPING;
+            case DIRTY: return Message.DIRTY;
+            default:
+                if (pet.getHappiness() > 70) {
+                    return Message.GREAT_DAY;
+                } else if (pet.getEnergy() > 80) {
+                    return Message.ENERGETIC;
+                }
+                return Message.OKAY;
+        }
+    }
+
+    private static Alert alertFor(Pet pet) {
+        if (!pet.isAlive()) {
+            return Alert.NONE;
+        }
+        if (inBand(pet.getHunger(), 15, 25)) return Alert.HUNGER_WARNING;
+        if (inBand(pet.getHappiness(), 15, 25)) return Alert.HAPPINESS_WARNING;
+        if (inBand(pet.getEnergy(), 15, 25)) return Alert.ENERGY_WARNING;
+        if (inBand(pet.getCleanliness(), 15, 25)) return Alert.CLEANLINESS_WARNING;
+        if (inBand(pet.getHunger(), 0, 15)) return Alert.HUNGER_EMERGENCY;
+        if (inBand(pet.getHappiness(), 0, 15)) return Alert.HAPPINESS_EMERGENCY;
+        if (inBand(pet.getEnergy(), 0, 15)) return Alert.ENERGY_EMERGENCY;
+        if (inBand(pet.getCleanliness(), 0, 15)) return Alert.CLEANLINESS_EMERGENCY;
+        return Alert.NONE;
+    }
+
+    private static boolean inBand(double value, int lower, int upper) {
+        return value <= upper && value > lower;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.digibuddy;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.drawable.Drawable;
+import android.util.AttributeSet;
+import android.util.Log;
+import android.view.View;
+import androidx.core.content.ContextCompat;
+
+// Milestone stars as one view. ic_gold_star is rasterized once at the star size and
+// drawn N times in onDraw, instead of one ImageView (and its vector parse) per star.
+// setCount() only re-measures when the count changes, and once the row would be
+// wider than the space it is given the strip collapses to a single star and a "×N"
+// badge, so neither layout nor drawing grows with the pet's age.
+public class StarStripView extends View {
+    private static final int STAR_DP = 14;
+    private static final int GAP_DP = 4;
+    private static final int TEXT_SP = 12;
+
+    private final int starSize;
+    private final int gap;
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private Bitmap star;
+
+    private int count;
+    private boolean collapsed;
+    // Built once per count change, not per draw
+    private String badge = "";
+    // Baseline that centres the badge text on the star
+    private final float badgeBaseline;
+
+    public StarStripView(Context context) {
+        this(context, null);
+    }
+
+    public StarStripView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        float density = context.getResources().getDisplayMetrics().density;
+        starSize = Math.round(STAR_DP * density);
+        gap = Math.round(GAP_DP * density);
+        textPaint.setTextSize(TEXT_SP * density);
+        textPaint.setColor(ContextCompat.getColor(context, R.color.black));
+        Paint.FontMetrics metrics = textPaint.getFontMetrics();
+        badgeBaseline = (starSize - metrics.ascent - metrics.descent) / 2f;
+    }
+
+    public void setCount(int count) {
+        count = Math.max(0, count);
+        if (count == this.count) {
+            return;
+        }
+        this.count = count;
+        badge = "×" + count;
+        setContentDescription(count == 1 ? "1 milestone star" : count + " milestone stars");
+        requestLayout();
+        invalidate();
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int padding = getPaddingLeft() + getPaddingRight();
+        int full = count == 0 ? 0 : count * starSize + (count - 1) * gap;
+        int badgeWidth = starSize + gap + (int) Math.ceil(textPaint.measureText(badge));
+
+        int mode = MeasureSpec.getMode(widthMeasureSpec);
+        int available = MeasureSpec.getSize(widthMeasureSpec) - padding;
+        collapsed = mode != MeasureSpec.UNSPECIFIED && full > available && count > 1;
+
+        int width = padding + (collapsed ? badgeWidth : full);
+        int height = getPaddingTop() + getPaddingBottom() + (count == 0 ? 0 : starSize);
+        setMeasuredDimension(resolveSize(width, widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (count == 0 || !ensureStar()) {
+            return;
+        }
+        float left = getPaddingLeft();
+        float top = getPaddingTop();
+        if (collapsed) {
+            canvas.drawBitmap(star, left, top, bitmapPaint);
+            canvas.drawText(badge, left + starSize + gap, top + badgeBaseline, textPaint);
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            canvas.drawBitmap(star, left + i * (starSize + gap), top, bitmapPaint);
+        }
+    }
+
+    private boolean ensureStar() {
+        if (star != null) {
+            return true;
+        }
+        try {
+            Drawable source = ContextCompat.getDrawable(getContext(), R.drawable.ic_gold_star);
+            if (source == null) {
+                return false;
+            }
+            star = Bitmap.createBitmap(starSize, starSize, Bitmap.Config.ARGB_8888);
+            source.setBounds(0, 0, starSize, starSize);
+            source.draw(new Canvas(star));
+            return true;
+        } catch (Exception e) {
+            Log.e("StarStrip", "Error rasterizing star: " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.digibuddy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Named, timed phases of MainActivity startup. Phases run back to back on the main
+// thread; report() renders them as one line, together with the time to the first
+// frame, so cold-start cost can be compared release over release from logcat.
+public class StartupTrace {
+    private final long startNanos;
+    private final List<String> names = new ArrayList<>();
+    private final List<Long> durations = new ArrayList<>();
+
+    private String currentPhase;
+    private long currentStart;
+    private long firstFrameNanos = -1;
+    private long finishedNanos = -1;
+
+    public StartupTrace(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    public void begin(String phase) {
+        begin(phase, System.nanoTime());
+    }
+
+    void begin(String phase, long now) {
+        if (currentPhase != null) {
+            end(now);
+        }
+        currentPhase = phase;
+        currentStart = now;
+    }
+
+    public void end() {
+        end(System.nanoTime());
+    }
+
+    void end(long now) {
+        if (currentPhase == null) {
+            return;
+        }
+        names.add(currentPhase);
+        durations.add(now - currentStart);
+        currentPhase = null;
+    }
+
+    public void firstFrame() {
+        firstFrame(System.nanoTime());
+    }
+
+    void firstFrame(long now) {
+        if (firstFrameNanos < 0) {
+            firstFrameNanos = now - startNanos;
+        }
+    }
+
+    // Called once deferred startup work is done; closes any open phase
+    public void finish() {
+        finish(System.nanoTime());
+    }
+
+    void finish(long now) {
+        end(now);
+        finishedNanos = now - startNanos;
+    }
+
+    public long getPhaseNanos(String phase) {
+        long total = 0;
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).equals(phase)) {
+                total += durations.get(i);
+            }
+        }
+        return total;
+    }
+
+    // e.g. "1.0.5-b startup: views=4.1ms repository=12.3ms ... firstFrame=130.2ms total=171.0ms"
+    public String report(String version) {
+        StringBuilder report = new StringBuilder(version).append(" startup:");
+        for (int i = 0; i < names.size(); i++) {
+            report.append(' ').append(names.get(i)).append('=').append(millis(durations.get(i)));
+        }
+        if (firstFrameNanos >= 0) {
+            report.append(" firstFrame=").append(millis(firstFrameNanos));
+        }
+        if (finishedNanos >= 0) {
+            report.append(" total=").append(millis(finishedNanos));
+        }
+        return report.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.US, "%.1fms", nanos / 1_000_000.0);
+    }
+}
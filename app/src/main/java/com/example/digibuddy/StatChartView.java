@@ -0,0 +1,245 @@
+package com.example.digibuddy;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+import android.view.ViewParent;
+import androidx.core.content.ContextCompat;
+
+// Hunger, happiness, energy and cleanliness over time, drawn straight from
+// StatHistory. The Paths, Paints and per-stat query buffers are allocated once (the
+// buffers again only when the width changes), and StatHistory downsamples each
+// stat to one point per pixel, so a redraw is four queries into reused arrays and
+// four Path rebuilds. Paths are only rebuilt when the window moves or a sample lands
+// in a new bucket at the shown resolution; a plain invalidate just redraws them.
+// Drag to scroll back in time, pinch to zoom, double tap to jump back to now.
+public class StatChartView extends View {
+    private static final long MIN_WINDOW = StatHistory.HOUR;
+    private static final long MAX_WINDOW = 365 * StatHistory.DAY;
+    private static final long DEFAULT_WINDOW = StatHistory.DAY;
+
+    private static final int[] STATS = {
+            StatHistory.STAT_HUNGER, StatHistory.STAT_HAPPINESS,
+            StatHistory.STAT_ENERGY, StatHistory.STAT_CLEANLINESS,
+    };
+    private static final int[] COLORS = {
+            R.color.red_500, R.color.gold, R.color.purple_500, R.color.teal_700,
+    };
+
+    private final Path[] paths = new Path[STATS.length];
+    private final Paint[] paints = new Paint[STATS.length];
+    private final Paint gridPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private StatHistory.Series[] series = new StatHistory.Series[0];
+
+    private final GestureDetector gestures;
+    private final ScaleGestureDetector scaleGestures;
+
+    private StatHistory history;
+    // Visible window is [end - window, end); end tracks the newest sample while following
+    private long window = DEFAULT_WINDOW;
+    private long end;
+    private boolean following = true;
+    // Bucket of the newest sample at the resolution the paths were built from
+    private long drawnBucket = Long.MIN_VALUE;
+    private boolean dirty = true;
+
+    public StatChartView(Context context) {
+        this(context, null);
+    }
+
+    public StatChartView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        float density = context.getResources().getDisplayMetrics().density;
+        for (int i = 0; i < STATS.length; i++) {
+            paths[i] = new Path();
+            Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            paint.setStyle(Paint.Style.STROKE);
+            paint.setStrokeWidth(2 * density);
+            paint.setStrokeJoin(Paint.Join.ROUND);
+            paint.setStrokeCap(Paint.Cap.ROUND);
+            paint.setColor(ContextCompat.getColor(context, COLORS[i]));
+            paints[i] = paint;
+        }
+        gridPaint.setStyle(Paint.Style.STROKE);
+        gridPaint.setStrokeWidth(density);
+        gridPaint.setColor(ContextCompat.getColor(context, R.color.black));
+        gridPaint.setAlpha(60);
+
+        gestures = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(MotionEvent e) {
+                return true;
+            }
+
+            @Override
+            public boolean onScroll(MotionEvent first, MotionEvent current, float dx, float dy) {
+                if (Math.abs(dx) > Math.abs(dy)) {
+                    // Horizontal drag scrolls the chart, not the surrounding ScrollView
+                    ViewParent parent = getParent();
+                    if (parent != null) {
+                        parent.requestDisallowInterceptTouchEvent(true);
+                    }
+                }
+                panBy(dx);
+                return true;
+            }
+
+            @Override
+            public boolean onDoubleTap(MotionEvent e) {
+                window = DEFAULT_WINDOW;
+                following = true;
+                moveWindow();
+                return true;
+            }
+        });
+        scaleGestures = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScale(ScaleGestureDetector detector) {
+                zoomBy(detector.getScaleFactor(), detector.getFocusX());
+                return true;
+            }
+        });
+    }
+
+    public void setHistory(StatHistory history) {
+        this.history = history;
+        following = true;
+        moveWindow();
+    }
+
+    // Called on every pet change; rebuilds only once a new bucket shows up at the
+    // resolution on screen, and not at all while the user is looking at the past
+    public void onSamplesChanged() {
+        if (history == null || !following) {
+            return;
+        }
+        if (plotWidth() == 0) {
+            // Not laid out yet; the first draw builds the paths
+            dirty = true;
+            return;
+        }
+        long last = history.getLastTime();
+        long bucket = Math.floorDiv(last, history.resolutionFor(last - window, last, plotWidth()));
+        if (bucket != drawnBucket) {
+            moveWindow();
+        }
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        int points = Math.max(2, plotWidth());
+        if (series.length == 0 || series[0].capacity() != points) {
+            series = new StatHistory.Series[STATS.length];
+            for (int i = 0; i < STATS.length; i++) {
+                series[i] = new StatHistory.Series(points);
+            }
+        }
+        dirty = true;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        boolean handled = scaleGestures.onTouchEvent(event);
+        if (!scaleGestures.isInProgress()) {
+            handled |= gestures.onTouchEvent(event);
+        }
+        return handled || super.onTouchEvent(event);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (history == null || series.length == 0) {
+            return;
+        }
+        if (dirty) {
+            rebuildPaths();
+            dirty = false;
+        }
+        float warningY = yFor(PetState.toUnits(AlertRuleEngine.WARNING_THRESHOLD));
+        canvas.drawLine(getPaddingLeft(), warningY, getWidth() - getPaddingRight(), warningY, gridPaint);
+        for (int i = 0; i < STATS.length; i++) {
+            canvas.drawPath(paths[i], paints[i]);
+        }
+    }
+
+    private void panBy(float dx) {
+        long latest = latest();
+        end = Math.min(latest, end + (long) (dx * window / Math.max(1, plotWidth())));
+        following = end >= latest;
+        invalidateWindow();
+    }
+
+    private void zoomBy(float factor, float focusX) {
+        long newWindow = Math.max(MIN_WINDOW, Math.min(MAX_WINDOW, (long) (window / factor)));
+        if (newWindow == window) {
+            return;
+        }
+        // Keep the time under the fingers where it is
+        double right = 1 - (focusX - getPaddingLeft()) / Math.max(1, plotWidth());
+        long focusTime = end - (long) (window * right);
+        window = newWindow;
+        end = following ? latest() : Math.min(latest(), focusTime + (long) (window * right));
+        invalidateWindow();
+    }
+
+    private void moveWindow() {
+        if (following) {
+            end = latest();
+        }
+        invalidateWindow();
+    }
+
+    private void invalidateWindow() {
+        dirty = true;
+        postInvalidateOnAnimation();
+    }
+
+    private long latest() {
+        if (history == null || history.getLastTime() == Long.MIN_VALUE) {
+            return System.currentTimeMillis();
+        }
+        return history.getLastTime() + 1;
+    }
+
+    private void rebuildPaths() {
+        long from = end - window;
+        int width = plotWidth();
+        drawnBucket = Math.floorDiv(end - 1, history.resolutionFor(from, end, width));
+        double pxPerMilli = (double) width / window;
+        float left = getPaddingLeft();
+        for (int i = 0; i < STATS.length; i++) {
+            StatHistory.Series s = series[i];
+            Path path = paths[i];
+            // rewind() keeps the Path's storage for the next rebuild
+            path.rewind();
+            int n = history.query(STATS[i], from, end, s);
+            for (int p = 0; p < n; p++) {
+                float x = left + (float) ((s.times[p] - from) * pxPerMilli);
+                float y = yFor(s.values[p]);
+                if (p == 0) {
+                    path.moveTo(x, y);
+                } else {
+                    path.lineTo(x, y);
+                }
+            }
+        }
+    }
+
+    private float yFor(int units) {
+        int top = getPaddingTop();
+        int height = getHeight() - top - getPaddingBottom();
+        return top + height * (1f - (float) units / PetState.MAX_UNITS);
+    }
+
+    private int plotWidth() {
+        return Math.max(0, getWidth() - getPaddingLeft() - getPaddingRight());
+    }
+}
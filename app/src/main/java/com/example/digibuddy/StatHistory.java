@@ -0,0 +1,293 @@
+package com.example.digibuddy;
+
+import java.util.Arrays;
+
+// Stat history at three resolutions, in fixed-size primitive rings: minute means for
+// the last two days, hour means for the last 60 days and day means for ten years, so
+// a pet that lives for years costs a bounded ~190 KB. Each closed minute is folded
+// into its hour and each closed hour into its day as it happens. A query picks the
+// finest level that still reaches back to the start of the window and holds no more
+// than a few points per pixel (a week comes from 168 hourly means, not 10,080
+// minutes), then reduces it to the requested width with largest-triangle-three-buckets
+// (LTTB), which keeps the peaks and dips a plain stride would skip.
+//
+// Samples are stat values in PetState units. Between two samples a stat moves in a
+// straight line (PetDecay), so sparse samples from PetService wakeups still draw the
+// true curve. PetRepository feeds it on the simulation thread and StatChartView
+// queries it on the main thread, so the public methods are synchronized; a query
+// touches at most a few points per pixel, so the lock is only ever held briefly.
+public class StatHistory {
+    public static final int STAT_HUNGER = AlertRuleEngine.STAT_HUNGER;
+    public static final int STAT_HAPPINESS = AlertRuleEngine.STAT_HAPPINESS;
+    public static final int STAT_ENERGY = AlertRuleEngine.STAT_ENERGY;
+    public static final int STAT_CLEANLINESS = AlertRuleEngine.STAT_CLEANLINESS;
+    public static final int STAT_COUNT = 4;
+
+    public static final long MINUTE = PetDecay.MILLIS_PER_MINUTE;
+    public static final long HOUR = 60 * MINUTE;
+    public static final long DAY = 24 * HOUR;
+
+    // A level is used while it has at most this many raw points per output point
+    private static final int MAX_POINTS_PER_PIXEL = 4;
+
+    // One resolution: a ring of bucket start times and per-stat bucket means, plus the
+    // bucket still being filled
+    static final class Level {
+        final long resolution;
+        final int capacity;
+        final long[] times;
+        final int[][] values;
+        int start;
+        int size;
+
+        long openTime = Long.MIN_VALUE;
+        final long[] sums = new long[STAT_COUNT];
+        int count;
+
+        Level(long resolution, int capacity) {
+            this.resolution = resolution;
+            this.capacity = capacity;
+            times = new long[capacity];
+            values = new int[STAT_COUNT][capacity];
+        }
+
+        // Adds a value to the open bucket; returns true if that closed the previous one
+        boolean add(long time, int[] stats) {
+            long bucket = Math.floorDiv(time, resolution) * resolution;
+            boolean closed = false;
+            if (bucket != openTime) {
+                closed = close();
+                openTime = bucket;
+            }
+            for (int s = 0; s < STAT_COUNT; s++) {
+                sums[s] += stats[s];
+            }
+            count++;
+            return closed;
+        }
+
+        // Appends the open bucket's means to the ring
+        boolean close() {
+            if (count == 0) {
+                return false;
+            }
+            int slot;
+            if (size < capacity) {
+                slot = (start + size++) % capacity;
+            } else {
+                slot = start;
+                start = (start + 1) % capacity;
+            }
+            times[slot] = openTime;
+            for (int s = 0; s < STAT_COUNT; s++) {
+                values[s][slot] = (int) (sums[s] / count);
+                sums[s] = 0;
+            }
+            count = 0;
+            return true;
+        }
+
+        // Closed buckets plus the open one, so queries see the latest samples
+        int length() {
+            return count > 0 ? size + 1 : size;
+        }
+
+        long time(int index) {
+            return index == size ? openTime : times[(start + index) % capacity];
+        }
+
+        int value(int stat, int index) {
+            return index == size ? (int) (sums[stat] / count) : values[stat][(start + index) % capacity];
+        }
+
+        // First index with time >= t
+        int lowerBound(long t) {
+            int lo = 0;
+            int hi = length();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (time(mid) < t) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        long oldest() {
+            return length() == 0 ? Long.MAX_VALUE : time(0);
+        }
+    }
+
+    // Reusable query output, so a chart can redraw without allocating
+    public static final class Series {
+        public final long[] times;
+        public final int[] values;
+        public int size;
+
+        public Series(int capacity) {
+            times = new long[capacity];
+            values = new int[capacity];
+        }
+
+        public int capacity() {
+            return times.length;
+        }
+    }
+
+    private final Level[] levels;
+    private final int[] scratch = new int[STAT_COUNT];
+    private long lastTime = Long.MIN_VALUE;
+
+    public StatHistory() {
+        this(2 * 24 * 60, 60 * 24, 10 * 366);
+    }
+
+    StatHistory(int minutes, int hours, int days) {
+        levels = new Level[]{
+                new Level(MINUTE, minutes),
+                new Level(HOUR, hours),
+                new Level(DAY, days),
+        };
+    }
+
+    public synchronized void record(long time, Pet pet) {
+        scratch[STAT_HUNGER] = pet.getHungerUnits();
+        scratch[STAT_HAPPINESS] = pet.getHappinessUnits();
+        scratch[STAT_ENERGY] = pet.getEnergyUnits();
+        scratch[STAT_CLEANLINESS] = pet.getCleanlinessUnits();
+        record(time, scratch);
+    }
+
+    // Samples must come in time order; older ones (clock set back) are dropped
+    public synchronized void record(long time, int[] stats) {
+        if (time < lastTime) {
+            return;
+        }
+        lastTime = time;
+        if (!levels[0].add(time, stats)) {
+            return;
+        }
+        // A minute closed: its mean feeds the hour, and a closed hour feeds the day
+        for (int i = 1; i < levels.length; i++) {
+            Level finer = levels[i - 1];
+            int last = finer.size - 1;
+            for (int s = 0; s < STAT_COUNT; s++) {
+                scratch[s] = finer.value(s, last);
+            }
+            if (!levels[i].add(finer.time(last), scratch)) {
+                break;
+            }
+        }
+    }
+
+    // Time of the newest sample, or Long.MIN_VALUE if there is none
+    public synchronized long getLastTime() {
+        return lastTime;
+    }
+
+    public synchronized void clear() {
+        for (Level level : levels) {
+            level.start = 0;
+            level.size = 0;
+            level.count = 0;
+            level.openTime = Long.MIN_VALUE;
+            Arrays.fill(level.sums, 0);
+        }
+        lastTime = Long.MIN_VALUE;
+    }
+
+    // Resolution in millis that query() would read for this window and width
+    public synchronized long resolutionFor(long from, long to, int width) {
+        return pickLevel(from, to, width).resolution;
+    }
+
+    // One stat over [from, to), reduced to at most out.capacity() points with LTTB.
+    // Returns the number of points written to out.
+    public synchronized int query(int stat, long from, long to, Series out) {
+        Level level = pickLevel(from, to, out.capacity());
+        int first = level.lowerBound(from);
+        int end = level.lowerBound(to);
+        int n = end - first;
+        out.size = n <= out.capacity() ? copy(level, stat, first, n, out) : lttb(level, stat, first, n, out);
+        return out.size;
+    }
+
+    private Level pickLevel(long from, long to, int width) {
+        long span = Math.max(1, to - from);
+        for (Level level : levels) {
+            boolean reaches = level.oldest() <= from || level.size < level.capacity;
+            boolean fine = span / level.resolution <= (long) width * MAX_POINTS_PER_PIXEL;
+            if (reaches && fine) {
+                return level;
+            }
+        }
+        return levels[levels.length - 1];
+    }
+
+    private static int copy(Level level, int stat, int first, int n, Series out) {
+        for (int i = 0; i < n; i++) {
+            out.times[i] = level.time(first + i);
+            out.values[i] = level.value(stat, first + i);
+        }
+        return n;
+    }
+
+    // Largest-triangle-three-buckets: keeps the first and last point, and from each
+    // bucket in between the point forming the largest triangle with the point kept
+    // before it and the mean of the next bucket
+    private static int lttb(Level level, int stat, int first, int n, Series out) {
+        int threshold = out.capacity();
+        if (threshold < 3) {
+            out.times[0] = level.time(first);
+            out.values[0] = level.value(stat, first);
+            if (threshold == 2) {
+                out.times[1] = level.time(first + n - 1);
+                out.values[1] = level.value(stat, first + n - 1);
+            }
+            return threshold;
+        }
+        double every = (double) (n - 2) / (threshold - 2);
+        int kept = 0;
+        int a = 0;
+        out.times[kept] = level.time(first);
+        out.values[kept++] = level.value(stat, first);
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Mean of the next bucket
+            int nextStart = (int) Math.floor((bucket + 1) * every) + 1;
+            int nextEnd = Math.min(n, (int) Math.floor((bucket + 2) * every) + 1);
+            double meanX = 0;
+            double meanY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                meanX += level.time(first + i);
+                meanY += level.value(stat, first + i);
+            }
+            int nextCount = Math.max(1, nextEnd - nextStart);
+            meanX /= nextCount;
+            meanY /= nextCount;
+
+            int rangeStart = (int) Math.floor(bucket * every) + 1;
+            int rangeEnd = (int) Math.floor((bucket + 1) * every) + 1;
+            double ax = level.time(first + a);
+            double ay = level.value(stat, first + a);
+            double maxArea = -1;
+            int chosen = rangeStart;
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                double area = Math.abs((ax - meanX) * (level.value(stat, first + i) - ay)
+                        - (ax - level.time(first + i)) * (meanY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            out.times[kept] = level.time(first + chosen);
+            out.values[kept++] = level.value(stat, first + chosen);
+            a = chosen;
+        }
+        out.times[kept] = level.time(first + n - 1);
+        out.values[kept++] = level.value(stat, first + n - 1);
+        return kept;
+    }
+}
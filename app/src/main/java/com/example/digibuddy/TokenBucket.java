@@ -0,0 +1,59 @@
+package com.example.digibuddy;
+
+// Classic token bucket: holds up to capacity tokens and gains one every refillMillis.
+// A caller that gets a token may do the expensive thing (here: let a notification
+// make sound, vibrate and light the screen); one that does not falls back to the
+// cheap path. Bursts up to capacity pass, the long-run rate is one per refillMillis.
+// Not thread safe; PetService only touches it from its handler.
+public class TokenBucket {
+    private final int capacity;
+    private final long refillMillis;
+
+    private int tokens;
+    private long lastRefill;
+
+    // Starts full, so the first burst after a quiet period is never throttled
+    public TokenBucket(int capacity, long refillMillis, long now) {
+        if (capacity <= 0 || refillMillis <= 0) {
+            throw new IllegalArgumentException("capacity and refillMillis must be positive");
+        }
+        this.capacity = capacity;
+        this.refillMillis = refillMillis;
+        this.tokens = capacity;
+        this.lastRefill = now;
+    }
+
+    public boolean tryAcquire(long now) {
+        refill(now);
+        if (tokens == 0) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    public int available(long now) {
+        refill(now);
+        return tokens;
+    }
+
+    private void refill(long now) {
+        if (now < lastRefill) {
+            // Wall clock went back; restart the interval rather than wait it out
+            lastRefill = now;
+            return;
+        }
+        long earned = (now - lastRefill) / refillMillis;
+        if (earned == 0) {
+            return;
+        }
+        if (tokens + earned >= capacity) {
+            tokens = capacity;
+            lastRefill = now;
+        } else {
+            tokens += (int) earned;
+            // Keep the partial interval so the rate does not drift
+            lastRefill += earned * refillMillis;
+        }
+    }
+}
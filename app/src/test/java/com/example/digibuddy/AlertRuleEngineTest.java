@@ -0,0 +1,145 @@
+package com.example.digibuddy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AlertRuleEngineTest {
+    private static final long MINUTE = 60 * 1000;
+
+    private static long bit(String key) {
+        for (int i = 0; i < AlertRuleEngine.RULES.length; i++) {
+            if (AlertRuleEngine.RULES[i].key.equals(key)) {
+                return 1L << i;
+            }
+        }
+        throw new AssertionError(key);
+    }
+
+    @Test
+    public void firesOnce_thenRefiresAfterCooldown() {
+        AlertRuleEngine engine = new AlertRuleEngine();
+        Pet pet = new Pet();
+        pet.setHunger(20);
+
+        engine.evaluate(pet, 0);
+        assertEquals(bit("hunger_warning"), engine.getFired());
+        engine.evaluate(pet, MINUTE);
+        assertEquals(0, engine.getFired());
+        assertEquals(AlertRuleEngine.COOLDOWN + 1, engine.nextRefireAt(pet));
+        engine.evaluate(pet, AlertRuleEngine.COOLDOWN + 1);
+        assertEquals(bit("hunger_warning"), engine.getFired());
+    }
+
+    @Test
+    public void bandChange_cancelsWarningAndFiresEmergency() {
+        AlertRuleEngine engine = new AlertRuleEngine();
+        Pet pet = new Pet();
+        pet.setEnergy(20);
+        engine.evaluate(pet, 0);
+        pet.setEnergy(10);
+        engine.evaluate(pet, MINUTE);
+        assertEquals(bit("energy_emergency"), engine.getFired());
+        assertEquals(bit("energy_warning"), engine.getCancelled());
+    }
+
+    @Test
+    public void hysteresis_holdsUntilClearlyAboveBand() {
+        AlertRuleEngine engine = new AlertRuleEngine();
+        Pet pet = new Pet();
+        pet.setCleanliness(24);
+        engine.evaluate(pet, 0);
+
+        pet.setCleanliness(AlertRuleEngine.WARNING_THRESHOLD + 1);
+        engine.evaluate(pet, MINUTE);
+        assertEquals(0, engine.getCancelled());
+        assertEquals(bit("cleanliness_warning"), engine.getActive());
+
+        pet.setCleanliness(AlertRuleEngine.WARNING_THRESHOLD + AlertRuleEngine.HYSTERESIS + 1);
+        engine.evaluate(pet, 2 * MINUTE);
+        assertEquals(bit("cleanliness_warning"), engine.getCancelled());
+        assertEquals(0, engine.getActive());
+
+        // Inside the hysteresis zone an inactive rule does not start again
+        pet.setCleanliness(AlertRuleEngine.WARNING_THRESHOLD + 1);
+        engine.evaluate(pet, 3 * MINUTE);
+        assertEquals(0, engine.getFired());
+    }
+
+    @Test
+    public void sleeping_dropsEnergyAlertsAndStartsNoNewOnes() {
+        AlertRuleEngine engine = new AlertRuleEngine();
+        Pet pet = new Pet();
+        pet.setEnergy(10);
+        engine.evaluate(pet, 0);
+
+        pet.setSleeping(true);
+        pet.setHunger(20);
+        engine.evaluate(pet, MINUTE);
+        assertEquals(bit("energy_emergency"), engine.getCancelled());
+        assertEquals(0, engine.getFired());
+
+        pet.setSleeping(false);
+        engine.evaluate(pet, 2 * MINUTE);
+        assertEquals(bit("hunger_warning") | bit("energy_emergency"), engine.getFired());
+    }
+
+    @Test
+    public void death_cancelsEverything() {
+        AlertRuleEngine engine = new AlertRuleEngine();
+        Pet pet = new Pet();
+        pet.setHunger(10);
+        pet.setHappiness(20);
+        engine.evaluate(pet, 0);
+        pet.setAlive(false);
+        engine.evaluate(pet, MINUTE);
+        assertEquals(bit("hunger_emergency") | bit("happiness_warning"), engine.getCancelled());
+        assertEquals(Long.MAX_VALUE, engine.nextRefireAt(pet));
+    }
+
+    @Test
+    public void heldAlerts_doNotPullTheNextWakeupIntoThePast() {
+        AlertRuleEngine engine = new AlertRuleEngine();
+        Pet pet = new Pet();
+        pet.setHunger(20);
+        engine.evaluate(pet, 0);
+
+        // Asleep with the hunger warning held: no re-fire until it wakes, only the
+        // slowed-down decay into the emergency band
+        long now = AlertRuleEngine.COOLDOWN + 5 * MINUTE;
+        // Caught up to 400ms ago; decay counts whole seconds from there
+        pet.setLastUpdate(now - 400);
+        pet.setSleeping(true);
+        engine.evaluate(pet, now);
+        assertEquals(bit("hunger_warning"), engine.getActive());
+        assertEquals(Long.MAX_VALUE, engine.nextRefireAt(pet));
+        int sleepingRate = PetDecay.hungerUnitsPerSecond(true);
+        long sleepingSeconds = (5 * PetState.UNITS_PER_POINT + sleepingRate - 1) / sleepingRate;
+        long due = engine.nextChangeAt(pet);
+        assertEquals(now - 400 + sleepingSeconds * 1000, due);
+        assertCrossedAt(pet, due, AlertRuleEngine.EMERGENCY_THRESHOLD);
+
+        // Awake again but held in the hysteresis margin: the next change is decay
+        // reaching the band, not the long-expired cooldown
+        pet.setSleeping(false);
+        pet.setHunger(26);
+        engine.evaluate(pet, now);
+        assertEquals(bit("hunger_warning"), engine.getActive());
+        assertEquals(Long.MAX_VALUE, engine.nextRefireAt(pet));
+        due = engine.nextChangeAt(pet);
+        assertEquals(now - 400 + PetState.UNITS_PER_POINT / PetDecay.hungerUnitsPerSecond(false) * 1000, due);
+        assertCrossedAt(pet, due, AlertRuleEngine.WARNING_THRESHOLD);
+    }
+
+    // Hunger is on the threshold at due, and was not a millisecond before
+    private static void assertCrossedAt(Pet pet, long due, double threshold) {
+        Pet early = new Pet();
+        early.copyFrom(pet);
+        PetDecay.advance(early, due - 1);
+        assertTrue(early.getHunger() > threshold);
+        Pet atDue = new Pet();
+        atDue.copyFrom(pet);
+        PetDecay.advance(atDue, due);
+        assertTrue(atDue.getHunger() <= threshold);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.digibuddy;
+
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BalanceSimulatorTest {
+    @Test
+    public void sameSeed_sameReport_whateverTheThreadCount() {
+        BalanceSimulator simulator = new BalanceSimulator(new BalanceSimulator.PolicySpace(), 20);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            BalanceSimulator.Report a = simulator.run(5000, 7, single);
+            BalanceSimulator.Report b = simulator.run(5000, 7, several);
+            assertEquals(5000, a.getLifetimes());
+            assertEquals(a.getLivingMillis(), b.getLivingMillis());
+            for (int day = 1; day <= 20; day++) {
+                assertEquals(a.survivalAt(day), b.survivalAt(day), 0);
+            }
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    @Test
+    public void attentiveCaretakers_outliveForgetfulOnes() {
+        BalanceSimulator.PolicySpace attentive = new BalanceSimulator.PolicySpace()
+                .feedEvery(3, 4).playEvery(6, 8).cleanEvery(12, 20).sleepFor(6, 8).forget(0, 0);
+        BalanceSimulator.PolicySpace forgetful = new BalanceSimulator.PolicySpace()
+                .feedEvery(10, 12).playEvery(20, 24).cleanEvery(60, 72).sleepFor(0, 2).forget(0.3, 0.5);
+
+        BalanceSimulator.Report good = new BalanceSimulator(attentive, 30).run(2000, 1);
+        BalanceSimulator.Report bad = new BalanceSimulator(forgetful, 30).run(2000, 1);
+
+        assertTrue(good.survivalAt(30) > 0.9);
+        assertTrue(bad.survivalAt(30) < good.survivalAt(30));
+        assertTrue(good.stageReachedShare(PetStage.ADULT) > 0.9);
+        assertEquals(7, good.meanDaysToStage(PetStage.ADULT), 0.01);
+        assertEquals(1, good.meanDaysToStage(PetStage.BABY), 0.01);
+    }
+
+    @Test
+    public void moodShares_coverAllLivingTime() {
+        BalanceSimulator.Report report = new BalanceSimulator(new BalanceSimulator.PolicySpace(), 10).run(500, 3);
+        double total = 0;
+        for (PetMood mood : PetMood.values()) {
+            total += report.moodShare(mood);
+        }
+        assertEquals(1, total, 1e-9);
+        assertTrue(report.moodShare(PetMood.SLEEPING) > 0);
+        assertTrue(report.getLivingMillis() > 0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.digibuddy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MessageSchedulerTest {
+    private static final long SHOW = MessageScheduler.DISPLAY_MILLIS;
+    private static final long COOLDOWN = 5 * 60 * 1000;
+
+    @Test
+    public void sameKeyAndSeverity_isShownOncePerCooldown_butSeverityChangeShowsAtOnce() {
+        MessageScheduler scheduler = new MessageScheduler();
+        assertNotNull(scheduler.offer("alert_hunger", MessageScheduler.PRIORITY_WARNING, "hungry", COOLDOWN, 0));
+        // The band flapping every second stays quiet
+        for (long t = 1000; t < COOLDOWN; t += 1000) {
+            assertNull(scheduler.offer("alert_hunger", MessageScheduler.PRIORITY_WARNING, "hungry", COOLDOWN, t));
+            assertNull(scheduler.poll(t));
+        }
+        assertFalse(scheduler.hasPending());
+
+        MessageScheduler.Message worse = scheduler.offer("alert_hunger",
+                MessageScheduler.PRIORITY_EMERGENCY, "very hungry", COOLDOWN, COOLDOWN - 1);
+        assertNotNull(worse);
+        assertEquals("very hungry", worse.text);
+        assertNotNull(scheduler.offer("alert_hunger", MessageScheduler.PRIORITY_WARNING, "hungry", COOLDOWN, COOLDOWN + SHOW));
+    }
+
+    @Test
+    public void onlyOneMessageWaits_andTheHigherPriorityWins() {
+        MessageScheduler scheduler = new MessageScheduler();
+        assertNotNull(scheduler.offer("Yum!", MessageScheduler.PRIORITY_INFO, "Yum!", SHOW, 0));
+        assertNull(scheduler.offer("fun", MessageScheduler.PRIORITY_INFO, "fun", SHOW, 100));
+        assertNull(scheduler.offer("clean", MessageScheduler.PRIORITY_INFO, "clean", SHOW, 200));
+
+        // A warning takes the screen from an info message straight away
+        MessageScheduler.Message alert = scheduler.offer("alert_energy",
+                MessageScheduler.PRIORITY_WARNING, "tired", COOLDOWN, 300);
+        assertEquals("tired", alert.text);
+        assertTrue(scheduler.isShowing(300 + SHOW - 1));
+        assertNull(scheduler.poll(300 + SHOW - 1));
+
+        // Only the newest info message was kept behind it
+        MessageScheduler.Message next = scheduler.poll(scheduler.nextPollAt());
+        assertEquals("clean", next.text);
+        assertNull(scheduler.poll(scheduler.nextPollAt()));
+        assertFalse(scheduler.isShowing(300 + 3 * SHOW));
+        assertEquals(Long.MAX_VALUE, scheduler.nextPollAt());
+    }
+
+    @Test
+    public void repeatedTaps_doNotStackToasts() {
+        MessageScheduler scheduler = new MessageScheduler();
+        int shown = 0;
+        for (long t = 0; t < 10_000; t += 100) {
+            if (scheduler.offer("Yum!", MessageScheduler.PRIORITY_INFO, "Yum!", SHOW, t) != null) {
+                shown++;
+            }
+            if (scheduler.poll(t) != null) {
+                shown++;
+            }
+        }
+        assertEquals(5, shown);
+        assertFalse(scheduler.hasPending());
+    }
+}
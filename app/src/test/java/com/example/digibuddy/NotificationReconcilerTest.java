@@ -0,0 +1,88 @@
+package com.example.digibuddy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NotificationReconcilerTest {
+    private static final long SUMMARY = 1L << NotificationReconciler.SUMMARY_SLOT;
+
+    private static long bit(String key) {
+        for (int i = 0; i < AlertRuleEngine.RULES.length; i++) {
+            if (AlertRuleEngine.RULES[i].key.equals(key)) {
+                return 1L << i;
+            }
+        }
+        throw new IllegalArgumentException(key);
+    }
+
+    @Test
+    public void sleepingPet_cancelsPostedEnergyAlertInOnePass() {
+        NotificationReconciler reconciler = new NotificationReconciler();
+        long energy = bit("energy_warning");
+        reconciler.reconcile(energy, energy, 0);
+        assertEquals(energy, reconciler.getToPost());
+
+        // Asleep: the engine drops the energy rule, the posted one must go
+        reconciler.reconcile(0, 0, energy);
+        assertEquals(0, reconciler.getToPost());
+        assertEquals(energy, reconciler.getToCancel());
+    }
+
+    @Test
+    public void severalActive_replaceSinglesWithOneSummary() {
+        NotificationReconciler reconciler = new NotificationReconciler();
+        long hunger = bit("hunger_warning");
+        long active = hunger | bit("cleanliness_emergency");
+        reconciler.reconcile(active, bit("cleanliness_emergency"), hunger);
+        assertEquals(SUMMARY, reconciler.getToPost());
+        assertEquals(hunger, reconciler.getToCancel());
+
+        // Nothing changed: nothing to do
+        reconciler.reconcile(active, 0, SUMMARY);
+        assertEquals(0, reconciler.getToPost());
+        assertEquals(0, reconciler.getToCancel());
+
+        // A third rule fires, then clears again: the summary text follows both times
+        long more = active | bit("happiness_warning");
+        reconciler.reconcile(more, bit("happiness_warning"), SUMMARY);
+        assertEquals(SUMMARY, reconciler.getToPost());
+        reconciler.reconcile(active, 0, SUMMARY);
+        assertEquals(SUMMARY, reconciler.getToPost());
+        assertEquals(0, reconciler.getToCancel());
+    }
+
+    @Test
+    public void dismissedAlert_staysGoneUntilItFiresAgain() {
+        NotificationReconciler reconciler = new NotificationReconciler();
+        long hunger = bit("hunger_emergency");
+        reconciler.reconcile(hunger, hunger, 0);
+        assertEquals(hunger, reconciler.getToPost());
+
+        reconciler.reconcile(hunger, 0, 0);
+        assertEquals(0, reconciler.getToPost());
+
+        reconciler.reconcile(hunger, hunger, 0);
+        assertEquals(hunger, reconciler.getToPost());
+    }
+
+    @Test
+    public void staleNotifications_areCancelledAndMissingOnesPosted() {
+        NotificationReconciler reconciler = new NotificationReconciler();
+        // Left over from an earlier process
+        long stale = bit("energy_emergency") | SUMMARY;
+        long hunger = bit("hunger_warning");
+        reconciler.reconcile(hunger, 0, stale);
+        assertEquals(stale, reconciler.getToCancel());
+        assertEquals(hunger, reconciler.getToPost());
+    }
+
+    @Test
+    public void slotOf_mapsIdsBothWays() {
+        assertEquals(SUMMARY, NotificationReconciler.slotOf(NotificationReconciler.SUMMARY_ID));
+        assertEquals(0, NotificationReconciler.slotOf(1));
+        for (int i = 0; i <= NotificationReconciler.SUMMARY_SLOT; i++) {
+            assertEquals(1L << i, NotificationReconciler.slotOf(NotificationReconciler.idOf(i)));
+        }
+    }
+}
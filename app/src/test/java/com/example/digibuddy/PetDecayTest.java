@@ -0,0 +1,98 @@
+package com.example.digibuddy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PetDecayTest {
+    private static final long MINUTE = PetDecay.MILLIS_PER_MINUTE;
+
+    private Pet agedPet(long lastUpdate) {
+        Pet pet = new Pet();
+        pet.setAge(2.0);
+        pet.setLastUpdate(lastUpdate);
+        return pet;
+    }
+
+    @Test
+    public void freshPet_doesNotDecayOnCatchUp() {
+        Pet pet = new Pet();
+        pet.setLastUpdate(0);
+        assertEquals(0, PetDecay.catchUp(pet, 10 * MINUTE), 0);
+        assertEquals(100, pet.getHunger(), 0);
+        assertEquals(10 * MINUTE, pet.getLastUpdate());
+    }
+
+    @Test
+    public void freshPet_decaysOnLiveTicks() {
+        Pet pet = new Pet();
+        pet.setLastUpdate(0);
+        assertEquals(10, PetDecay.advance(pet, 10 * MINUTE), 1e-9);
+        assertEquals(99.2, pet.getHunger(), 1e-9);
+        assertEquals(10 / 1440.0, pet.getAge(), 1e-9);
+        assertFalse(PetDecay.isFresh(pet));
+        // Once it has decayed, catchUp is the same as advance
+        Pet caughtUp = new Pet();
+        caughtUp.copyFrom(pet);
+        PetDecay.catchUp(caughtUp, 20 * MINUTE);
+        PetDecay.advance(pet, 20 * MINUTE);
+        assertEquals(pet.getHungerUnits(), caughtUp.getHungerUnits());
+        assertEquals(pet.getAgeSeconds(), caughtUp.getAgeSeconds());
+    }
+
+    @Test
+    public void awake_decaysLinearly() {
+        Pet pet = agedPet(0);
+        PetDecay.advance(pet, 100 * MINUTE);
+        assertEquals(92, pet.getHunger(), 1e-9);
+        assertEquals(96, pet.getHappiness(), 1e-9);
+        assertEquals(96, pet.getEnergy(), 1e-9);
+        assertEquals(98.4, pet.getCleanliness(), 1e-9);
+        assertEquals(2.0 + 100 / 1440.0, pet.getAge(), 1e-9);
+    }
+
+    @Test
+    public void manySmallSteps_matchOneLargeStep() {
+        Pet stepped = agedPet(0);
+        for (long t = 1000; t <= 3600 * 1000; t += 1000) {
+            PetDecay.advance(stepped, t);
+        }
+        Pet jumped = agedPet(0);
+        PetDecay.advance(jumped, 3600 * 1000);
+        assertEquals(jumped.getHunger(), stepped.getHunger(), 1e-9);
+        assertEquals(jumped.getCleanliness(), stepped.getCleanliness(), 1e-9);
+        assertEquals(jumped.getAge(), stepped.getAge(), 1e-9);
+    }
+
+    @Test
+    public void sleeping_capsEnergyAtMax() {
+        Pet pet = agedPet(0);
+        pet.setEnergy(50);
+        pet.setSleeping(true);
+        PetDecay.advance(pet, 600 * MINUTE);
+        assertEquals(100, pet.getEnergy(), 0);
+        assertEquals(100 - 600 * 0.024, pet.getHunger(), 1e-9);
+        assertTrue(pet.isAlive());
+    }
+
+    @Test
+    public void death_stopsAtExactMoment() {
+        Pet pet = agedPet(0);
+        pet.setHunger(8);
+        double minutes = PetDecay.advance(pet, 7 * 24 * 60 * MINUTE);
+        assertEquals(100, minutes, 1e-9);
+        assertFalse(pet.isAlive());
+        assertEquals(0, pet.getHunger(), 1e-9);
+        assertEquals(96, pet.getHappiness(), 1e-9);
+        assertEquals(2.0 + 100 / 1440.0, pet.getAge(), 1e-9);
+    }
+
+    @Test
+    public void nextThreshold_isSolvedExactly() {
+        double[] thresholds = {25, 15, 0};
+        assertEquals((40 - 25) / 0.08, PetDecay.minutesUntilNextThreshold(40, 0.08, thresholds), 1e-9);
+        assertEquals((20 - 15) / 0.08, PetDecay.minutesUntilNextThreshold(20, 0.08, thresholds), 1e-9);
+        assertEquals(Double.POSITIVE_INFINITY,
+                PetDecay.minutesUntilNextThreshold(20, PetDecay.energyRate(true), thresholds), 0);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.digibuddy;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PetJournalTest {
+    private static final long MINUTE = PetDecay.MILLIS_PER_MINUTE;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Pet basePet() {
+        Pet pet = new Pet();
+        pet.setAge(2.0);
+        pet.setHunger(60);
+        pet.setLastUpdate(0);
+        return pet;
+    }
+
+    @Test
+    public void replay_reproducesLiveState() throws Exception {
+        PetSnapshotStore store = new PetSnapshotStore(new File(folder.getRoot(), "pet.snapshot"));
+        PetJournal journal = new PetJournal(new File(folder.getRoot(), "pet.journal"));
+        Pet live = basePet();
+        store.save(live);
+        journal.start(store.getSequence());
+
+        PetDecay.advance(live, 30 * MINUTE);
+        live.feed();
+        journal.append(live.getLastUpdate(), PetJournal.EVENT_FEED, 0);
+
+        PetDecay.advance(live, 90 * MINUTE);
+        live.setSleeping(true);
+        journal.append(live.getLastUpdate(), PetJournal.EVENT_SLEEP, 0);
+
+        PetDecay.advance(live, 400 * MINUTE);
+        journal.append(live.getLastUpdate(), PetJournal.EVENT_TICK, 0);
+
+        Pet replayed = store.load();
+        assertEquals(journal.getBaseSequence(), store.getSequence());
+        assertEquals(3, journal.replay(replayed));
+        assertEquals(live.getHunger(), replayed.getHunger(), 1e-9);
+        assertEquals(live.getHappiness(), replayed.getHappiness(), 1e-9);
+        assertEquals(live.getEnergy(), replayed.getEnergy(), 1e-9);
+        assertEquals(live.getCleanliness(), replayed.getCleanliness(), 1e-9);
+        assertEquals(live.getAge(), replayed.getAge(), 1e-9);
+        assertTrue(replayed.isSleeping());
+        assertEquals(live.getLastUpdate(), replayed.getLastUpdate());
+    }
+
+    @Test
+    public void freshCatchUp_replaysWithoutDecay() throws Exception {
+        PetSnapshotStore store = new PetSnapshotStore(new File(folder.getRoot(), "pet.snapshot"));
+        PetJournal journal = new PetJournal(new File(folder.getRoot(), "pet.journal"));
+        Pet live = new Pet();
+        live.setLastUpdate(0);
+        store.save(live);
+        journal.start(store.getSequence());
+
+        // Reopened after an hour: the fresh pet's wait is skipped, as PetRepository does
+        PetDecay.catchUp(live, 60 * MINUTE);
+        assertTrue(PetDecay.isFresh(live));
+        journal.append(live.getLastUpdate(), PetJournal.EVENT_IDLE, 0);
+
+        // Then it decays on screen from there
+        PetDecay.advance(live, 90 * MINUTE);
+        journal.append(live.getLastUpdate(), PetJournal.EVENT_TICK, 0);
+
+        Pet replayed = store.load();
+        assertEquals(2, journal.replay(replayed));
+        assertEquals(live.getHungerUnits(), replayed.getHungerUnits());
+        assertEquals(live.getHappinessUnits(), replayed.getHappinessUnits());
+        assertEquals(live.getEnergyUnits(), replayed.getEnergyUnits());
+        assertEquals(live.getCleanlinessUnits(), replayed.getCleanlinessUnits());
+        assertEquals(live.getAgeSeconds(), replayed.getAgeSeconds());
+        assertEquals(30 * 60, replayed.getAgeSeconds());
+        assertEquals(live.getLastUpdate(), replayed.getLastUpdate());
+    }
+
+    @Test
+    public void tornTail_isIgnoredAndTruncated() throws Exception {
+        File file = new File(folder.getRoot(), "pet.journal");
+        PetJournal journal = new PetJournal(file);
+        journal.start(0);
+        journal.append(MINUTE, PetJournal.EVENT_FEED, 0);
+        journal.append(2 * MINUTE, PetJournal.EVENT_DEATH, PetJournal.DEATH_HUNGER);
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[]{1, 2, 3, 4, 5, 6, 7});
+        }
+
+        List<Integer> types = new ArrayList<>();
+        assertEquals(2, journal.read((timestamp, type, arg) -> types.add(type)));
+        assertEquals(PetJournal.EVENT_DEATH, (int) types.get(1));
+        assertEquals(PetJournal.HEADER_SIZE + 2 * PetJournal.RECORD_SIZE, file.length());
+        assertEquals(2, journal.getRecordCount());
+    }
+
+    @Test
+    public void reset_startsNewPetAtEventTime() {
+        Pet pet = basePet();
+        pet.setAlive(false);
+        PetJournal.apply(pet, 5 * MINUTE, PetJournal.EVENT_RESET, 0);
+        assertTrue(pet.isAlive());
+        assertEquals(0, pet.getAge(), 0);
+        assertEquals(5 * MINUTE, pet.getLastUpdate());
+    }
+
+    @Test
+    public void start_rotatesPreviousGeneration() throws Exception {
+        File file = new File(folder.getRoot(), "pet.journal");
+        PetJournal journal = new PetJournal(file);
+        journal.start(0);
+        journal.append(MINUTE, PetJournal.EVENT_CLEAN, 0);
+        journal.start(1);
+        assertEquals(1, journal.getBaseSequence());
+        assertEquals(0, journal.getRecordCount());
+        assertEquals(1, new PetJournal(new File(file.getPath() + ".old")).getRecordCount());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.digibuddy;
+
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PetLogTest {
+    private final List<String> lines = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        PetLog.setSink((level, tag, message) -> lines.add(tag + ": " + message));
+        PetLog.setMinLevel(Log.DEBUG);
+    }
+
+    @After
+    public void tearDown() {
+        PetLog.setSink(Log::println);
+        PetLog.setSampling("Sampled", 1);
+    }
+
+    @Test
+    public void format_fillsPlaceholdersInOrder() {
+        assertEquals("Energy: 42.5, Sleeping: true", PetLog.format("Energy: {}, Sleeping: {}", "42.5", "true"));
+        assertEquals("a=1 b={}", PetLog.format("a={} b={}", "1", null));
+        assertEquals("no placeholders", PetLog.format("no placeholders", "1", "2"));
+    }
+
+    @Test
+    public void levelGate_dropsDisabledMessages() {
+        PetLog.setMinLevel(Log.INFO);
+        PetLog.d("Test", "Sleeping: {}, Energy: {}", true, 50.0);
+        assertTrue(lines.isEmpty());
+
+        PetLog.setMinLevel(Log.DEBUG);
+        PetLog.d("Test", "Sleeping: {}, Energy: {}", true, 50.0);
+        assertEquals("Test: Sleeping: true, Energy: 50.0", lines.get(0));
+    }
+
+    @Test
+    public void sampling_logsEveryNthCallPerTag() {
+        PetLog.setSampling("Sampled", 3);
+        for (int i = 0; i < 7; i++) {
+            PetLog.d("Sampled", "tick {}", i);
+            PetLog.d("Other", "tick {}", i);
+        }
+        assertEquals(3, lines.stream().filter(line -> line.startsWith("Sampled")).count());
+        assertTrue(lines.contains("Sampled: tick 3"));
+        assertEquals(7, lines.stream().filter(line -> line.startsWith("Other")).count());
+    }
+}
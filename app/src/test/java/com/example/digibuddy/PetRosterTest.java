@@ -0,0 +1,65 @@
+package com.example.digibuddy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PetRosterTest {
+    private static final long MINUTE = PetDecay.MILLIS_PER_MINUTE;
+
+    private Pet pet(double hunger, double energy, boolean sleeping, double age) {
+        Pet pet = new Pet();
+        pet.setHunger(hunger);
+        pet.setEnergy(energy);
+        pet.setSleeping(sleeping);
+        pet.setAge(age);
+        pet.setLastUpdate(0);
+        return pet;
+    }
+
+    @Test
+    public void tickAll_matchesPetDecay() {
+        Pet[] pets = {
+                pet(80, 60, false, 0.5),
+                pet(80, 60, true, 2.9),
+                pet(5, 60, false, 6.99),
+                new Pet(),
+        };
+        pets[3].setLastUpdate(0);
+
+        PetRoster roster = new PetRoster(1);
+        for (Pet pet : pets) {
+            roster.add(pet);
+        }
+        roster.tickAll(200 * MINUTE);
+
+        Pet actual = new Pet();
+        for (int i = 0; i < pets.length; i++) {
+            PetDecay.advance(pets[i], 200 * MINUTE);
+            roster.get(i, actual);
+            assertEquals(pets[i].getHunger(), actual.getHunger(), 1e-9);
+            assertEquals(pets[i].getHappiness(), actual.getHappiness(), 1e-9);
+            assertEquals(pets[i].getEnergy(), actual.getEnergy(), 1e-9);
+            assertEquals(pets[i].getCleanliness(), actual.getCleanliness(), 1e-9);
+            assertEquals(pets[i].getAge(), actual.getAge(), 1e-9);
+            assertEquals(pets[i].getStage(), actual.getStage());
+            assertEquals(pets[i].isAlive(), actual.isAlive());
+        }
+        assertEquals(3, roster.countAlive());
+    }
+
+    @Test
+    public void view_writesThroughToArrays() {
+        PetRoster roster = new PetRoster(4);
+        int id = roster.add(new Pet());
+        Pet view = roster.view(id);
+        view.setSleeping(true);
+        view.feed();
+        view.setAge(3.5);
+
+        assertTrue(roster.view(id).isSleeping());
+        assertEquals("teen", roster.view(id).getStage());
+        assertEquals(95, roster.view(id).getCleanliness(), 0);
+        assertTrue(roster.isAlive(id));
+    }
+}
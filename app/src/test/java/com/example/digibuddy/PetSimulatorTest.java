@@ -0,0 +1,93 @@
+package com.example.digibuddy;
+
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PetSimulatorTest {
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+
+    private static Pet pet(double hunger, double happiness, double energy, double cleanliness) {
+        Pet pet = new Pet();
+        pet.setHunger(hunger);
+        pet.setHappiness(happiness);
+        pet.setEnergy(energy);
+        pet.setCleanliness(cleanliness);
+        pet.setLastUpdate(1_000_000L);
+        return pet;
+    }
+
+    @Test
+    public void neglectedPet_diesWhenClosedFormSaysSo() {
+        Pet start = pet(50, 90, 90, 90);
+        long expected = Math.round(PetDecay.minutesUntilDeath(start) * MINUTE);
+
+        PetSimulator.Result result = new PetSimulator(HOUR).run(start, new CareSchedule(), 30 * DAY);
+
+        assertEquals(expected, result.getDeathOffset());
+        assertEquals(PetJournal.DEATH_HUNGER, result.getDeathCause());
+        assertFalse(result.getPet().isAlive());
+        // Start, ten hourly samples, then the moment of death
+        List<PetSimulator.Sample> samples = result.getSamples();
+        assertEquals(12, samples.size());
+        assertEquals(0, samples.get(samples.size() - 1).hunger, 1e-9);
+        // The input is left alone
+        assertTrue(start.isAlive());
+        assertEquals(50, start.getHunger(), 0);
+    }
+
+    @Test
+    public void caredForPet_growsUpOnSchedule() {
+        CareSchedule schedule = new CareSchedule()
+                .every(4 * HOUR, 0, PetJournal.EVENT_FEED)
+                .every(8 * HOUR, HOUR, PetJournal.EVENT_PLAY)
+                .every(DAY, 12 * HOUR, PetJournal.EVENT_CLEAN)
+                .every(DAY, 22 * HOUR + 30 * MINUTE, PetJournal.EVENT_SLEEP)
+                .every(DAY, 30 * HOUR + 30 * MINUTE, PetJournal.EVENT_WAKE);
+
+        PetSimulator.Result result = new PetSimulator(HOUR).run(pet(90, 90, 90, 90), schedule, 30 * DAY);
+
+        assertEquals(-1, result.getDeathOffset());
+        List<PetSimulator.StageChange> stages = result.getStageChanges();
+        assertEquals(3, stages.size());
+        assertEquals(PetStage.BABY, stages.get(0).stage);
+        assertEquals(DAY, stages.get(0).offset, 1);
+        assertEquals(PetStage.TEEN, stages.get(1).stage);
+        assertEquals(3 * DAY, stages.get(1).offset, 1);
+        assertEquals(PetStage.ADULT, stages.get(2).stage);
+        assertEquals(7 * DAY, stages.get(2).offset, 1);
+        assertEquals(3, result.getPet().getMilestonesAchieved());
+        assertEquals(30 * 24 + 1, result.getSamples().size());
+    }
+
+    @Test
+    public void careWhileAsleep_isRefusedLikeTheApp() {
+        CareSchedule schedule = new CareSchedule()
+                .at(0, PetJournal.EVENT_SLEEP)
+                .at(HOUR, PetJournal.EVENT_FEED)
+                .at(HOUR, PetJournal.EVENT_CLEAN)
+                .at(2 * HOUR, PetJournal.EVENT_WAKE)
+                .at(3 * HOUR, PetJournal.EVENT_FEED);
+
+        PetSimulator.Result result = new PetSimulator(HOUR).run(pet(60, 90, 90, 90), schedule, 4 * HOUR);
+
+        assertEquals(3, result.getCareApplied());
+        assertEquals(2, result.getCareRefused());
+        assertFalse(result.getPet().isSleeping());
+    }
+
+    @Test
+    public void parse_readsMinuteBasedEntries() {
+        CareSchedule schedule = CareSchedule.parse("feed:60:480, sleep:1320");
+        assertEquals(HOUR, schedule.nextAt(0));
+        assertEquals(9 * HOUR, schedule.nextAt(HOUR + 1));
+        assertEquals(22 * HOUR, schedule.nextAt(21 * HOUR + 1));
+        int[] due = new int[2];
+        assertEquals(1, schedule.eventsAt(22 * HOUR, due));
+        assertEquals(PetJournal.EVENT_SLEEP, due[0]);
+        assertEquals(Long.MAX_VALUE, CareSchedule.parse("clean:10").nextAt(11 * MINUTE));
+    }
+}
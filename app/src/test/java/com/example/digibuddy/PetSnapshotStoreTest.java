@@ -0,0 +1,112 @@
+package com.example.digibuddy;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.*;
+
+public class PetSnapshotStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Pet samplePet(double hunger) {
+        Pet pet = new Pet();
+        pet.setHunger(hunger);
+        pet.setHappiness(42.123456789);
+        pet.setAge(3.5);
+        pet.setSleeping(true);
+        pet.setLastUpdate(1234567890123L);
+        pet.setMilestonesAchieved(2);
+        return pet;
+    }
+
+    @Test
+    public void missingFile_loadsNull() throws Exception {
+        PetSnapshotStore store = new PetSnapshotStore(new File(folder.getRoot(), "pet.snapshot"));
+        assertNull(store.load());
+    }
+
+    @Test
+    public void saveAndLoad_roundTripsExactly() throws Exception {
+        File file = new File(folder.getRoot(), "pet.snapshot");
+        Pet saved = samplePet(12.000000001);
+        saved.setEnergyUnits(123457);
+        new PetSnapshotStore(file).save(saved);
+
+        Pet loaded = new PetSnapshotStore(file).load();
+        assertEquals(PetState.packLow(saved), PetState.packLow(loaded));
+        assertEquals(PetState.packHigh(saved), PetState.packHigh(loaded));
+        assertEquals(12, loaded.getHunger(), 0);
+        assertEquals(123457, loaded.getEnergyUnits());
+        assertEquals(3.5, loaded.getAge(), 0);
+        assertEquals("teen", loaded.getStage());
+        assertTrue(loaded.isSleeping());
+        assertTrue(loaded.isAlive());
+        assertEquals(1234567890123L, loaded.getLastUpdate());
+        assertEquals(2, loaded.getMilestonesAchieved());
+    }
+
+    @Test
+    public void unknownVersionSlot_isTreatedAsCorrupt() throws Exception {
+        File file = new File(folder.getRoot(), "pet.snapshot");
+        PetSnapshotStore store = new PetSnapshotStore(file);
+        store.save(samplePet(50));
+        store.save(samplePet(40));
+
+        // Rewrite slot B as a future version with a valid checksum
+        ByteBuffer slot = ByteBuffer.allocate(PetSnapshotStore.SLOT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(PetSnapshotStore.SLOT_SIZE);
+            raf.readFully(slot.array());
+            slot.putInt(4, PetSnapshotStore.VERSION + 1);
+            CRC32 crc = new CRC32();
+            crc.update(slot.array(), 0, 40);
+            slot.putInt(40, (int) crc.getValue());
+            raf.seek(PetSnapshotStore.SLOT_SIZE);
+            raf.write(slot.array());
+        }
+        assertEquals(50, new PetSnapshotStore(file).load().getHunger(), 0);
+    }
+
+    @Test
+    public void corruptNewestSlot_fallsBackToPreviousSave() throws Exception {
+        File file = new File(folder.getRoot(), "pet.snapshot");
+        PetSnapshotStore store = new PetSnapshotStore(file);
+        store.save(samplePet(50));
+        store.save(samplePet(40));
+        assertEquals(40, new PetSnapshotStore(file).load().getHunger(), 0);
+
+        // Second save went to slot B; damage it
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(PetSnapshotStore.SLOT_SIZE + 20);
+            raf.write(0x7f);
+        }
+        assertEquals(50, new PetSnapshotStore(file).load().getHunger(), 0);
+    }
+
+    @Test
+    public void saveAfterReopen_keepsAlternatingSlots() throws Exception {
+        File file = new File(folder.getRoot(), "pet.snapshot");
+        new PetSnapshotStore(file).save(samplePet(50));
+        new PetSnapshotStore(file).save(samplePet(40));
+        new PetSnapshotStore(file).save(samplePet(30));
+        assertEquals(30, new PetSnapshotStore(file).load().getHunger(), 0);
+        assertEquals(2 * PetSnapshotStore.SLOT_SIZE, file.length());
+    }
+
+    @Test
+    public void clear_removesSnapshot() throws Exception {
+        File file = new File(folder.getRoot(), "pet.snapshot");
+        PetSnapshotStore store = new PetSnapshotStore(file);
+        store.save(samplePet(50));
+        store.clear();
+        assertNull(store.load());
+    }
+}
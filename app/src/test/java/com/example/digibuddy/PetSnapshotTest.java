@@ -0,0 +1,128 @@
+package com.example.digibuddy;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class PetSnapshotTest {
+    @Test
+    public void snapshot_readsBackThePetItWasTakenFrom() {
+        Pet pet = new Pet();
+        pet.setHungerUnits(12345);
+        pet.setEnergyUnits(0);
+        pet.setAgeSeconds(25 * PetState.SECONDS_PER_DAY);
+        pet.updateStage();
+        pet.setSleeping(true);
+        pet.setMilestonesAchieved(2);
+        pet.setLastUpdate(987654321L);
+
+        PetSnapshot snapshot = PetSnapshot.of(pet);
+        assertEquals(12345, snapshot.getHungerUnits());
+        assertEquals(PetState.MAX_UNITS, snapshot.getHappinessUnits());
+        assertEquals(0, snapshot.getEnergyUnits());
+        assertEquals(25 * PetState.SECONDS_PER_DAY, snapshot.getAgeSeconds());
+        assertEquals(pet.getLifeStage(), snapshot.getLifeStage());
+        assertTrue(snapshot.isSleeping());
+        assertTrue(snapshot.isAlive());
+        assertEquals(2, snapshot.getMilestonesAchieved());
+        assertEquals(987654321L, snapshot.getLastUpdate());
+
+        // toPet hands out a copy; changing it leaves the snapshot alone
+        Pet copy = snapshot.toPet();
+        copy.feed();
+        assertEquals(12345, snapshot.getHungerUnits());
+    }
+
+    @Test
+    public void actionsTheyCannotTake_returnTheSameSnapshot() {
+        Pet pet = new Pet();
+        pet.setHunger(50);
+        pet.setLastUpdate(0);
+        PetSnapshot awake = PetSnapshot.of(pet);
+
+        PetSnapshot fed = awake.feed();
+        assertNotSame(awake, fed);
+        assertEquals(awake.getVersion() + 1, fed.getVersion());
+        assertEquals(75, fed.getHunger(), 1e-9);
+
+        PetSnapshot asleep = fed.withSleeping(true);
+        assertSame(asleep, asleep.feed());
+        assertSame(asleep, asleep.withSleeping(true));
+        // Nothing to catch up on when no time has passed
+        assertSame(asleep, asleep.advance(0));
+
+        pet.setAlive(false);
+        PetSnapshot dead = PetSnapshot.of(pet);
+        assertSame(dead, dead.feed());
+        assertSame(dead, dead.withSleeping(true));
+        assertSame(dead, dead.advance(60 * 60 * 1000));
+    }
+
+    @Test
+    public void racingTransitions_areAllApplied() throws InterruptedException {
+        Pet pet = new Pet();
+        pet.setHunger(90);
+        pet.setLastUpdate(0);
+        AtomicReference<PetSnapshot> state = new AtomicReference<>(PetSnapshot.of(pet));
+
+        int agers = 3;
+        int daysEach = 200;
+        int ticks = 1000;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[agers + 1];
+        for (int t = 0; t < agers; t++) {
+            threads[t] = new Thread(() -> {
+                await(start);
+                for (int i = 0; i < daysEach; i++) {
+                    update(state, s -> s.withAgeAdded(1));
+                }
+            });
+        }
+        threads[agers] = new Thread(() -> {
+            await(start);
+            for (int i = 1; i <= ticks; i++) {
+                long now = i * 1000L;
+                update(state, s -> s.advance(now));
+            }
+        });
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Every day added and every second ticked is there, however they interleaved
+        PetSnapshot result = state.get();
+        assertEquals(agers * daysEach * PetState.SECONDS_PER_DAY + ticks, result.getAgeSeconds());
+        assertEquals(ticks * 1000L, result.getLastUpdate());
+        assertEquals(agers * daysEach / Pet.MILESTONE_DAYS, result.getMilestonesAchieved());
+        assertEquals(agers * daysEach + ticks, result.getVersion());
+    }
+
+    private interface Transition {
+        PetSnapshot apply(PetSnapshot pet);
+    }
+
+    // The compare-and-set loop PetRepository runs
+    private static void update(AtomicReference<PetSnapshot> state, Transition transition) {
+        PetSnapshot prev;
+        PetSnapshot next;
+        do {
+            prev = state.get();
+            next = transition.apply(prev);
+        } while (next != prev && !state.compareAndSet(prev, next));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
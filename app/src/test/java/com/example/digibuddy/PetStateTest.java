@@ -0,0 +1,72 @@
+package com.example.digibuddy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PetStateTest {
+    @Test
+    public void everyDecayRate_isWholeUnitsPerSecond() {
+        double[] rates = {
+                PetDecay.hungerRate(false), PetDecay.hungerRate(true),
+                PetDecay.happinessRate(false), PetDecay.happinessRate(true),
+                PetDecay.energyRate(false), PetDecay.energyRate(true),
+                PetDecay.cleanlinessRate(false), PetDecay.cleanlinessRate(true),
+        };
+        for (double rate : rates) {
+            double exact = rate * PetState.UNITS_PER_POINT / 60;
+            assertEquals(exact, PetState.unitsPerSecond(rate), 1e-9);
+        }
+        assertEquals(10, PetDecay.hungerUnitsPerSecond(false));
+        assertEquals(-30, PetDecay.energyUnitsPerSecond(true));
+    }
+
+    @Test
+    public void packUnpack_isLossless() {
+        Pet pet = new Pet();
+        pet.setHungerUnits(1);
+        pet.setHappinessUnits(PetState.MAX_UNITS);
+        pet.setEnergyUnits(524287);
+        pet.setCleanlinessUnits(0);
+        pet.setAgeSeconds(0xFFFFFFFFL);
+        pet.updateStage();
+        pet.setSleeping(true);
+        pet.setAlive(false);
+        pet.setMilestonesAchieved(4095);
+
+        Pet copy = new Pet();
+        PetState.unpack(PetState.packLow(pet), PetState.packHigh(pet), copy);
+        assertEquals(1, copy.getHungerUnits());
+        assertEquals(PetState.MAX_UNITS, copy.getHappinessUnits());
+        assertEquals(524287, copy.getEnergyUnits());
+        assertEquals(0, copy.getCleanlinessUnits());
+        assertEquals(0xFFFFFFFFL, copy.getAgeSeconds());
+        assertEquals(PetStage.ADULT, copy.getLifeStage());
+        assertTrue(copy.isSleeping());
+        assertFalse(copy.isAlive());
+        assertEquals(4095, copy.getMilestonesAchieved());
+    }
+
+    @Test
+    public void jitteryOneSecondTicks_doNotDriftAge() {
+        Pet ticked = new Pet();
+        ticked.setHunger(90);
+        ticked.setLastUpdate(0);
+        Pet jumped = new Pet();
+        jumped.copyFrom(ticked);
+
+        // Three hours of handler ticks that each run a little late
+        long now = 0;
+        for (int i = 0; i < 10_000; i++) {
+            now += 1003;
+            PetDecay.advance(ticked, now);
+        }
+        PetDecay.advance(jumped, now);
+
+        assertEquals(jumped.getAgeSeconds(), ticked.getAgeSeconds());
+        assertEquals(now / 1000, ticked.getAgeSeconds());
+        assertEquals(PetState.packLow(jumped), PetState.packLow(ticked));
+        assertEquals(PetState.packHigh(jumped), PetState.packHigh(ticked));
+        assertEquals(jumped.getLastUpdate(), ticked.getLastUpdate());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.digibuddy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PetUiModelTest {
+    private Pet pet() {
+        Pet pet = new Pet();
+        pet.setAge(4.2);
+        pet.setHunger(80.4);
+        pet.setHappiness(60.5);
+        pet.setEnergy(70.5);
+        pet.setCleanliness(90.5);
+        pet.setLastUpdate(0);
+        return pet;
+    }
+
+    @Test
+    public void firstModel_bindsEverything() {
+        assertEquals(PetUiModel.CHANGED_ALL, PetUiModel.of(pet()).changesFrom(null));
+    }
+
+    @Test
+    public void sameDisplayedIntegers_noChanges() {
+        Pet pet = pet();
+        PetUiModel before = PetUiModel.of(pet);
+        // A one-second tick moves hunger by ~0.0013, well inside the same integer
+        PetDecay.advance(pet, 1000);
+        assertEquals(0, PetUiModel.of(pet).changesFrom(before));
+    }
+
+    @Test
+    public void changesOnlyWhatMoved() {
+        Pet pet = pet();
+        PetUiModel before = PetUiModel.of(pet);
+        pet.setHunger(79.9);
+        assertEquals(PetUiModel.CHANGED_HUNGER, PetUiModel.of(pet).changesFrom(before));
+
+        before = PetUiModel.of(pet);
+        pet.setSleeping(true);
+        int changes = PetUiModel.of(pet).changesFrom(before);
+        assertTrue((changes & PetUiModel.CHANGED_STATE) != 0);
+        assertTrue((changes & PetUiModel.CHANGED_SPRITE) != 0);
+        assertTrue((changes & PetUiModel.CHANGED_BUTTONS) != 0);
+        assertEquals(0, changes & PetUiModel.CHANGED_HUNGER);
+    }
+
+    @Test
+    public void alert_followsLowStatBands() {
+        Pet pet = pet();
+        pet.setEnergy(24);
+        assertEquals(PetUiModel.Alert.ENERGY_WARNING, PetUiModel.of(pet).alert);
+        assertTrue(PetUiModel.of(pet).playEnabled);
+        pet.setEnergy(19);
+        assertEquals(PetUiModel.Alert.ENERGY_WARNING, PetUiModel.of(pet).alert);
+        assertFalse(PetUiModel.of(pet).playEnabled);
+        pet.setHunger(10);
+        assertEquals(PetUiModel.Alert.ENERGY_WARNING, PetUiModel.of(pet).alert);
+        pet.setEnergy(90);
+        assertEquals(PetUiModel.Alert.HUNGER_EMERGENCY, PetUiModel.of(pet).alert);
+        assertEquals(PetUiModel.Message.HUNGRY, PetUiModel.of(pet).message);
+        pet.setAlive(false);
+        assertEquals(PetUiModel.Alert.NONE, PetUiModel.of(pet).alert);
+        assertEquals(PetUiModel.Message.DEAD, PetUiModel.of(pet).message);
+    }
+
+    @Test
+    public void secondsUntilChange_neverSleepsPastAChange() {
+        java.util.Random random = new java.util.Random(7);
+        for (int trial = 0; trial < 500; trial++) {
+            Pet pet = pet();
+            pet.setHungerUnits(random.nextInt(PetState.MAX_UNITS));
+            pet.setHappinessUnits(random.nextInt(PetState.MAX_UNITS));
+            pet.setEnergyUnits(random.nextInt(PetState.MAX_UNITS) / 3000 * 3000);
+            pet.setCleanlinessUnits(random.nextInt(PetState.MAX_UNITS));
+            pet.setAgeSeconds(random.nextInt(40 * (int) PetState.SECONDS_PER_DAY));
+            pet.updateStage();
+            pet.setSleeping(random.nextBoolean());
+            long seconds = PetUiModel.secondsUntilChange(pet);
+            PetUiModel before = PetUiModel.of(pet);
+            boolean wasOnPoint = onPoint(pet);
+
+            Pet almost = new Pet();
+            almost.copyFrom(pet);
+            PetDecay.advance(almost, (seconds - 1) * 1000);
+            assertEquals(0, PetUiModel.of(almost).changesFrom(before));
+            // At the due second a value changed, or a stat was or is exactly on a point
+            // (where only a "> n" or "< n" test can flip)
+            PetDecay.advance(pet, seconds * 1000);
+            assertTrue(wasOnPoint || onPoint(pet) || PetUiModel.of(pet).changesFrom(before) != 0);
+        }
+    }
+
+    private static boolean onPoint(Pet pet) {
+        return pet.getHungerUnits() % PetState.UNITS_PER_POINT == 0
+                || pet.getHappinessUnits() % PetState.UNITS_PER_POINT == 0
+                || pet.getEnergyUnits() % PetState.UNITS_PER_POINT == 0
+                || pet.getCleanlinessUnits() % PetState.UNITS_PER_POINT == 0;
+    }
+
+    @Test
+    public void secondsUntilChange_awakePetTicksRarely() {
+        Pet pet = pet();
+        pet.setHungerUnits(50 * PetState.UNITS_PER_POINT + 5000);
+        pet.setHappinessUnits(50 * PetState.UNITS_PER_POINT + 5000);
+        pet.setEnergyUnits(50 * PetState.UNITS_PER_POINT + 5000);
+        pet.setCleanlinessUnits(50 * PetState.UNITS_PER_POINT + 5000);
+        pet.setAgeSeconds(2 * PetState.SECONDS_PER_DAY);
+        // Hunger drops fastest: 5000 units at 10 per second
+        assertEquals(500, PetUiModel.secondsUntilChange(pet));
+        pet.setAlive(false);
+        assertEquals(Long.MAX_VALUE, PetUiModel.secondsUntilChange(pet));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.digibuddy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StartupTraceTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void report_listsPhasesInOrderWithTiming() {
+        StartupTrace trace = new StartupTrace(0);
+        trace.begin("views", 0);
+        trace.begin("repository", 4 * MS);
+        trace.end(16 * MS);
+        trace.firstFrame(120 * MS);
+        trace.begin("diagnostics", 125 * MS);
+        trace.finish(150 * MS);
+
+        assertEquals("1.0 startup: views=4.0ms repository=12.0ms diagnostics=25.0ms"
+                + " firstFrame=120.0ms total=150.0ms", trace.report("1.0"));
+        assertEquals(12 * MS, trace.getPhaseNanos("repository"));
+    }
+
+    @Test
+    public void firstFrame_isOnlyRecordedOnce() {
+        StartupTrace trace = new StartupTrace(10 * MS);
+        trace.firstFrame(30 * MS);
+        trace.firstFrame(90 * MS);
+        trace.end(100 * MS);
+        assertEquals("dev startup: firstFrame=20.0ms", trace.report("dev"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.digibuddy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StatHistoryTest {
+    private static final long MINUTE = StatHistory.MINUTE;
+    private static final long HOUR = StatHistory.HOUR;
+    private static final long DAY = StatHistory.DAY;
+
+    private static void recordMinutes(StatHistory history, long from, int minutes, int value) {
+        int[] stats = new int[StatHistory.STAT_COUNT];
+        for (int m = 0; m < minutes; m++) {
+            stats[StatHistory.STAT_HUNGER] = value < 0 ? m : value;
+            history.record(from + m * MINUTE, stats);
+        }
+    }
+
+    @Test
+    public void minutesRollUpIntoHourMeans() {
+        StatHistory history = new StatHistory();
+        // Hunger 0..119 over two hours: hourly means 29 and 89
+        recordMinutes(history, 0, 120, -1);
+        history.record(120 * MINUTE, new int[StatHistory.STAT_COUNT]);
+
+        // Two hours at 1 px wants at most 4 points, so the hour level answers
+        assertEquals(HOUR, history.resolutionFor(0, 2 * HOUR, 1));
+        StatHistory.Series hours = new StatHistory.Series(2);
+        assertEquals(2, history.query(StatHistory.STAT_HUNGER, 0, 2 * HOUR, hours));
+        assertEquals(0, hours.times[0]);
+        assertEquals(29, hours.values[0]);
+        assertEquals(HOUR, hours.times[1]);
+        assertEquals(89, hours.values[1]);
+
+        // At 60 px the minute level still covers the window
+        assertEquals(MINUTE, history.resolutionFor(0, 2 * HOUR, 60));
+        StatHistory.Series out = new StatHistory.Series(60);
+        assertEquals(60, history.query(StatHistory.STAT_HUNGER, 0, 2 * HOUR, out));
+        assertEquals(0, out.times[0]);
+        assertEquals(119, out.values[59]);
+    }
+
+    @Test
+    public void weekQuery_readsCoarsestCoveringLevel_andRingsStayBounded() {
+        StatHistory history = new StatHistory(60, 48, 30);
+        recordMinutes(history, 0, 90 * 24 * 60, 5000);
+
+        long now = 90 * DAY;
+        // Minutes only reach back an hour and hours two days, so a week is read from days
+        assertEquals(DAY, history.resolutionFor(now - 7 * DAY, now, 300));
+        StatHistory.Series out = new StatHistory.Series(300);
+        assertEquals(7, history.query(StatHistory.STAT_HUNGER, now - 7 * DAY, now, out));
+        assertEquals(5000, out.values[0]);
+        // The oldest days fell out of the 30-day ring
+        assertEquals(0, history.query(StatHistory.STAT_HUNGER, 0, 10 * DAY, out));
+        assertEquals(HOUR, history.resolutionFor(now - DAY, now, 300));
+    }
+
+    @Test
+    public void lttb_keepsEndpointsAndSpike() {
+        StatHistory history = new StatHistory();
+        int[] stats = new int[StatHistory.STAT_COUNT];
+        for (int m = 0; m < 1000; m++) {
+            stats[StatHistory.STAT_ENERGY] = m == 517 ? 700000 : 1000;
+            history.record(m * MINUTE, stats);
+        }
+        // 1000 minutes for 300 px stays on the minute level and is reduced by LTTB
+        StatHistory.Series out = new StatHistory.Series(300);
+        assertEquals(300, history.query(StatHistory.STAT_ENERGY, 0, 1000 * MINUTE, out));
+        assertEquals(0, out.times[0]);
+        assertEquals(999 * MINUTE, out.times[299]);
+        boolean spike = false;
+        for (int i = 0; i < out.size; i++) {
+            spike |= out.values[i] == 700000 && out.times[i] == 517 * MINUTE;
+            if (i > 0) {
+                assertTrue(out.times[i] > out.times[i - 1]);
+            }
+        }
+        assertTrue(spike);
+    }
+}
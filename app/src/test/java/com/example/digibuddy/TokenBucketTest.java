@@ -0,0 +1,41 @@
+package com.example.digibuddy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TokenBucketTest {
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    public void burstUpToCapacity_thenThrottled() {
+        TokenBucket bucket = new TokenBucket(2, 5 * MINUTE, 0);
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(1));
+        assertFalse(bucket.tryAcquire(2));
+        assertFalse(bucket.tryAcquire(5 * MINUTE - 1));
+        assertTrue(bucket.tryAcquire(5 * MINUTE));
+        assertFalse(bucket.tryAcquire(5 * MINUTE + 1));
+    }
+
+    @Test
+    public void refill_keepsPartialIntervalAndCapsAtCapacity() {
+        TokenBucket bucket = new TokenBucket(3, MINUTE, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+        // 1.5 intervals: one token now, the next half an interval later
+        assertEquals(1, bucket.available(MINUTE + MINUTE / 2));
+        assertEquals(2, bucket.available(2 * MINUTE));
+        assertEquals(3, bucket.available(60 * MINUTE));
+    }
+
+    @Test
+    public void clockGoingBack_doesNotGrantTokens() {
+        TokenBucket bucket = new TokenBucket(1, MINUTE, 10 * MINUTE);
+        assertTrue(bucket.tryAcquire(10 * MINUTE));
+        assertFalse(bucket.tryAcquire(0));
+        assertFalse(bucket.tryAcquire(MINUTE - 1));
+        assertTrue(bucket.tryAcquire(MINUTE));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.digibuddy;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Decay catch-up (PetService.updatePetStats, MainActivity.loadPet), the per-second
+// UI tick body (MainActivity.startUIUpdates) and the struct-of-arrays roster tick.
+// Single-pet benchmarks restart from the same template so the pet never dies mid-run.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PetDecayBenchmark {
+    private static final long START = 1_000_000_000_000L;
+
+    private Pet template;
+    private Pet pet;
+
+    @Setup
+    public void setUp() {
+        template = new Pet();
+        template.setAge(2.5);
+        template.setHunger(90);
+        template.setLastUpdate(START);
+        pet = new Pet();
+    }
+
+    @Benchmark
+    public Pet catchUpOneMinute() {
+        pet.copyFrom(template);
+        PetDecay.advance(pet, START + PetDecay.MILLIS_PER_MINUTE);
+        return pet;
+    }
+
+    @Benchmark
+    public Pet catchUpOneWeek() {
+        pet.copyFrom(template);
+        PetDecay.advance(pet, START + 7 * 24 * 60 * PetDecay.MILLIS_PER_MINUTE);
+        return pet;
+    }
+
+    @Benchmark
+    public void uiTick(Blackhole blackhole) {
+        pet.copyFrom(template);
+        PetDecay.advance(pet, START + 1000);
+        PetMood mood = PetMood.of(pet);
+        blackhole.consume(PetSprite.of(pet, mood));
+        blackhole.consume(pet);
+    }
+
+    @Benchmark
+    public PetRoster rosterTickAll(RosterState state) {
+        return state.tick();
+    }
+
+    @State(Scope.Thread)
+    public static class RosterState {
+        // Rewind well before the first pets would die (~20 simulated hours)
+        private static final long REWIND_AFTER = 10 * 60 * PetDecay.MILLIS_PER_MINUTE;
+
+        @Param({"1000", "100000"})
+        public int rosterSize;
+
+        private Pet[] initial;
+        private PetRoster roster;
+        private long now;
+
+        @Setup
+        public void setUp() {
+            initial = new Pet[rosterSize];
+            roster = new PetRoster(rosterSize);
+            for (int i = 0; i < rosterSize; i++) {
+                Pet pet = new Pet();
+                pet.setAge(i % 10);
+                pet.setHunger(90);
+                pet.setSleeping(i % 3 == 0);
+                pet.setLastUpdate(START);
+                initial[i] = pet;
+                roster.add(pet);
+            }
+            now = START;
+        }
+
+        PetRoster tick() {
+            now += 1000;
+            if (now - START > REWIND_AFTER) {
+                for (int i = 0; i < rosterSize; i++) {
+                    roster.set(i, initial[i]);
+                }
+                now = START + 1000;
+            }
+            roster.tickAll(now);
+            return roster;
+        }
+    }
+}
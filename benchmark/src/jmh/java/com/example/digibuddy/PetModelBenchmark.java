@@ -0,0 +1,55 @@
+package com.example.digibuddy;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Pet setters (clamping), copying and care actions
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PetModelBenchmark {
+    private Pet pet;
+    private Pet copy;
+    private double value;
+
+    @Setup
+    public void setUp() {
+        pet = new Pet();
+        pet.setAge(4.2);
+        copy = new Pet();
+    }
+
+    @Benchmark
+    public Pet setterClamping() {
+        // Walk through below-range, in-range and above-range values
+        value += 7.3;
+        if (value > 150) {
+            value = -50;
+        }
+        pet.setHunger(value);
+        pet.setHappiness(value);
+        pet.setEnergy(value);
+        pet.setCleanliness(value);
+        return pet;
+    }
+
+    @Benchmark
+    public Pet copyFrom() {
+        copy.copyFrom(pet);
+        return copy;
+    }
+
+    @Benchmark
+    public Pet careActions() {
+        pet.feed();
+        pet.play();
+        pet.clean();
+        return pet;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.digibuddy;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Mood and sprite selection and the UI model diff MainActivity.updateUI runs
+// every tick, over pets covering every mood and stage.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PetMoodBenchmark {
+    private Pet[] pets;
+
+    @Setup
+    public void setUp() {
+        pets = new Pet[]{
+                pet(0.5, 100, 100, 100, 100, false),
+                pet(2, 90, 90, 90, 90, false),
+                pet(4, 10, 90, 90, 90, false),
+                pet(8, 90, 90, 10, 90, false),
+                pet(8, 90, 90, 90, 10, false),
+                pet(8, 60, 40, 60, 60, false),
+                pet(8, 60, 40, 60, 60, true),
+        };
+    }
+
+    private static Pet pet(double age, double hunger, double happiness, double energy,
+                           double cleanliness, boolean sleeping) {
+        Pet pet = new Pet();
+        pet.setAge(age);
+        pet.setHunger(hunger);
+        pet.setHappiness(happiness);
+        pet.setEnergy(energy);
+        pet.setCleanliness(cleanliness);
+        pet.setSleeping(sleeping);
+        return pet;
+    }
+
+    @Benchmark
+    public void moodAndSprite(Blackhole blackhole) {
+        for (Pet pet : pets) {
+            PetMood mood = PetMood.of(pet);
+            blackhole.consume(PetSprite.of(pet, mood));
+        }
+    }
+
+    @Benchmark
+    public int uiModelDiff() {
+        int changes = 0;
+        PetUiModel previous = null;
+        for (Pet pet : pets) {
+            PetUiModel model = PetUiModel.of(pet);
+            changes |= model.changesFrom(previous);
+            previous = model;
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.digibuddy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+// The storage PetPreferences delegates to: snapshot save/load and journal append/replay.
+// Includes the fsync each write performs, so results depend on the disk under test.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PetStorageBenchmark {
+    private static final int REPLAY_RECORDS = 1000;
+
+    private File directory;
+    private PetSnapshotStore snapshotStore;
+    private PetJournal appendJournal;
+    private PetJournal replayJournal;
+    private Pet pet;
+    private Pet replayBase;
+    private Pet replayTarget;
+    private long timestamp;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("digibuddy-bench").toFile();
+        snapshotStore = new PetSnapshotStore(new File(directory, "pet.snapshot"));
+        pet = new Pet();
+        pet.setAge(3.2);
+        pet.setHunger(70);
+        pet.setLastUpdate(0);
+        snapshotStore.save(pet);
+
+        appendJournal = new PetJournal(new File(directory, "append.journal"));
+        appendJournal.start(0);
+
+        replayBase = new Pet();
+        replayBase.copyFrom(pet);
+        replayTarget = new Pet();
+        replayJournal = new PetJournal(new File(directory, "replay.journal"));
+        replayJournal.start(0);
+        for (int i = 1; i <= REPLAY_RECORDS; i++) {
+            int type = i % 10 == 0 ? PetJournal.EVENT_FEED : PetJournal.EVENT_TICK;
+            replayJournal.append(i * 60_000L, type, 0);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public Pet snapshotSaveLoadRoundTrip() throws IOException {
+        snapshotStore.save(pet);
+        return snapshotStore.load();
+    }
+
+    @Benchmark
+    public Pet snapshotLoad() throws IOException {
+        return snapshotStore.load();
+    }
+
+    @Benchmark
+    public void journalAppend() throws IOException {
+        appendJournal.append(++timestamp, PetJournal.EVENT_TICK, 0);
+    }
+
+    @Benchmark
+    public Pet journalReplay() throws IOException {
+        replayTarget.copyFrom(replayBase);
+        replayJournal.replay(replayTarget);
+        return replayTarget;
+    }
+}